@@ -0,0 +1,36 @@
+package io.katharsis.dispatcher.controller;
+
+import io.katharsis.request.path.PathType;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares the requests handled by a {@link BaseController}. Controllers marked with this annotation are compiled into
+ * a dispatch table by {@link io.katharsis.dispatcher.registry.ControllerRegistry}, so they are found without calling
+ * {@link BaseController#isAcceptable(io.katharsis.request.path.JsonPath, String)}. The declared route must match the
+ * controller's {@link BaseController#isAcceptable(io.katharsis.request.path.JsonPath, String)} implementation.
+ * <p>
+ * The annotation is not inherited, so a subclass of a routed controller, which may override
+ * {@link BaseController#isAcceptable(io.katharsis.request.path.JsonPath, String)}, is not routed unless it declares
+ * its own route.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ControllerRoute {
+
+    /**
+     * @return kinds of the last path element handled by the controller
+     */
+    PathType[] pathTypes();
+
+    /**
+     * @return true if the controller handles paths concerning a collection
+     */
+    boolean collection();
+
+    /**
+     * @return HTTP method handled by the controller
+     */
+    HttpMethod method();
+}
@@ -1,9 +1,30 @@
 package io.katharsis.dispatcher.controller;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum HttpMethod {
     GET,
     POST,
     DELETE,
     PUT,
     PATCH;
+
+    private static final Map<String, HttpMethod> METHODS = new HashMap<>();
+
+    static {
+        for (HttpMethod method : values()) {
+            METHODS.put(method.name(), method);
+        }
+    }
+
+    /**
+     * Finds a method by its name without throwing an exception for unknown names.
+     *
+     * @param name name of a HTTP method
+     * @return found method or <i>null</i> if the name is unknown
+     */
+    public static HttpMethod fromName(String name) {
+        return name != null ? METHODS.get(name) : null;
+    }
 }
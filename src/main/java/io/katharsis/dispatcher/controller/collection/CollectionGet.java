@@ -1,9 +1,11 @@
 package io.katharsis.dispatcher.controller.collection;
 
 import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.ControllerRoute;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 import io.katharsis.request.path.ResourcePath;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.resource.exception.ResourceNotFoundException;
@@ -11,13 +13,12 @@ import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.CollectionResponse;
-import io.katharsis.response.Container;
+import io.katharsis.response.ContainerIterable;
 import io.katharsis.utils.parser.TypeParser;
 
 import java.io.Serializable;
-import java.util.LinkedList;
-import java.util.List;
 
+@ControllerRoute(pathTypes = PathType.RESOURCE, collection = true, method = HttpMethod.GET)
 public class CollectionGet implements BaseController {
 
     private ResourceRegistry resourceRegistry;
@@ -56,13 +57,6 @@ public class CollectionGet implements BaseController {
                     idType);
             iterable = registryEntry.getResourceRepository().findAll(parsedIds, requestParams);
         }
-        List<Container> containers = new LinkedList<>();
-        if (iterable != null) {
-            for (Object element : iterable) {
-                containers.add(new Container(element));
-            }
-        }
-
-        return new CollectionResponse(containers);
+        return new CollectionResponse(new ContainerIterable(iterable, requestParams));
     }
 }
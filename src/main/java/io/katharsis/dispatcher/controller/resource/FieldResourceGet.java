@@ -1,27 +1,28 @@
 package io.katharsis.dispatcher.controller.resource;
 
 import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.ControllerRoute;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.FieldPath;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 import io.katharsis.request.path.PathIds;
+import io.katharsis.resource.RelationshipInfo;
 import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.CollectionResponse;
 import io.katharsis.response.ResourceResponse;
-import io.katharsis.utils.Generics;
 import io.katharsis.utils.parser.TypeParser;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Set;
 
+@ControllerRoute(pathTypes = PathType.FIELD, collection = false, method = HttpMethod.GET)
 public class FieldResourceGet implements BaseController {
 
     private ResourceRegistry resourceRegistry;
@@ -47,22 +48,14 @@ public class FieldResourceGet implements BaseController {
 
         RegistryEntry<?> registryEntry = resourceRegistry.getEntry(resourceName);
         Serializable castedResourceId = getResourceId(resourceIds, registryEntry);
-        Set<Field> relationshipFields = registryEntry.getResourceInformation().getRelationshipFields();
-
-        Class<?> baseRelationshipFieldClass = null;
-        Class<?> relationshipFieldClass = null;
-        for (Field relationshipField : relationshipFields) {
-            if (relationshipField.getName().equals(jsonPath.getElementName())) {
-                baseRelationshipFieldClass = relationshipField.getType();
-                relationshipFieldClass = Generics.getResourceClass(relationshipField, baseRelationshipFieldClass);
-            }
-        }
-        if (relationshipFieldClass == null) {
+        RelationshipInfo relationshipInfo = registryEntry.getResourceInformation().getRelationshipInfo(jsonPath.getElementName());
+        if (relationshipInfo == null) {
             throw new ResourceFieldNotFoundException(jsonPath.getElementName());
         }
-        RelationshipRepository relationshipRepositoryForClass = registryEntry.getRelationshipRepositoryForClass(relationshipFieldClass);
+        RelationshipRepository relationshipRepositoryForClass = registryEntry
+                .getRelationshipRepositoryForClass(relationshipInfo.getTargetClass());
         BaseResponse target;
-        if (Iterable.class.isAssignableFrom(baseRelationshipFieldClass)) {
+        if (relationshipInfo.isToMany()) {
             Iterable targetObjects = relationshipRepositoryForClass.findTargets(castedResourceId, jsonPath.getElementName());
             target = new CollectionResponse(targetObjects);
         } else {
@@ -1,34 +1,36 @@
 package io.katharsis.dispatcher.controller.resource;
 
+import io.katharsis.dispatcher.controller.ControllerRoute;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.FieldPath;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 import io.katharsis.request.path.PathIds;
+import io.katharsis.resource.RelationshipInfo;
 import io.katharsis.resource.exception.RequestBodyNotFoundException;
 import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistrySnapshot;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.Container;
 import io.katharsis.response.ResourceResponse;
-import io.katharsis.utils.Generics;
+import io.katharsis.utils.PropertyAccessor;
 import io.katharsis.utils.parser.TypeParser;
-import org.apache.commons.beanutils.PropertyUtils;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Creates a new post in a similar manner as in {@link ResourcePost}, but additionally adds a relation to a field.
  */
+@ControllerRoute(pathTypes = {PathType.FIELD, PathType.RELATIONSHIPS}, collection = false, method = HttpMethod.POST)
 public class FieldResourcePost extends ResourceUpsert {
 
     public FieldResourcePost(ResourceRegistry resourceRegistry, TypeParser typeParser) {
@@ -47,7 +49,8 @@ public class FieldResourcePost extends ResourceUpsert {
             throws InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException {
         String resourceName = jsonPath.getResourceName();
         PathIds resourceIds = jsonPath.getIds();
-        RegistryEntry registryEntry = resourceRegistry.getEntry(resourceName);
+        ResourceRegistrySnapshot registrySnapshot = resourceRegistry.getSnapshot();
+        RegistryEntry registryEntry = registrySnapshot.getEntry(resourceName);
 
         if (registryEntry == null) {
             throw new ResourceNotFoundException(resourceName);
@@ -57,40 +60,32 @@ public class FieldResourcePost extends ResourceUpsert {
         }
 
         Serializable castedResourceId = getResourceId(resourceIds, registryEntry);
-        Set<Field> relationshipFields = registryEntry.getResourceInformation().getRelationshipFields();
-
-        Class<?> baseRelationshipFieldClass = null;
-        Class<?> relationshipFieldClass = null;
-        for (Field relationshipField : relationshipFields) {
-            if (relationshipField.getName().equals(jsonPath.getElementName())) {
-                baseRelationshipFieldClass = relationshipField.getType();
-                relationshipFieldClass = Generics.getResourceClass(relationshipField, baseRelationshipFieldClass);
-            }
-        }
-        if (relationshipFieldClass == null) {
+        RelationshipInfo relationshipInfo = registryEntry.getResourceInformation().getRelationshipInfo(jsonPath.getElementName());
+        if (relationshipInfo == null) {
             throw new ResourceFieldNotFoundException(jsonPath.getElementName());
         }
-        RegistryEntry relationshipRegistryEntry = resourceRegistry.getEntry(relationshipFieldClass);
-        String relationshipResourceType = resourceRegistry.getResourceType(baseRelationshipFieldClass);
+        RegistryEntry relationshipRegistryEntry = registrySnapshot.getTargetEntry(relationshipInfo);
+        String relationshipResourceType = registrySnapshot.getResourceType(relationshipInfo.getTargetClass());
 
         Object resource = buildNewResource(relationshipRegistryEntry, requestBody, relationshipResourceType);
         setAttributes(requestBody, resource, relationshipRegistryEntry.getResourceInformation());
         Object savedResource = relationshipRegistryEntry.getResourceRepository().save(resource);
         saveRelations(savedResource, relationshipRegistryEntry, requestBody);
 
-        String relationshipResourceIdName = relationshipRegistryEntry.getResourceInformation().getIdField().getName();
-        Serializable resourceId = (Serializable) PropertyUtils.getProperty(savedResource, relationshipResourceIdName);
+        PropertyAccessor relationshipIdAccessor = relationshipRegistryEntry.getResourceInformation().getIdAccessor();
+        Serializable resourceId = (Serializable) relationshipIdAccessor.getValue(savedResource);
 
         Object savedResourceWithRelations = relationshipRegistryEntry.getResourceRepository().findOne(resourceId);
 
-        RelationshipRepository relationshipRepositoryForClass = registryEntry.getRelationshipRepositoryForClass(relationshipFieldClass);
+        RelationshipRepository relationshipRepositoryForClass = registryEntry
+                .getRelationshipRepositoryForClass(relationshipInfo.getTargetClass());
         Object parent = registryEntry.getResourceRepository().findOne(castedResourceId);
-        if (Iterable.class.isAssignableFrom(baseRelationshipFieldClass)) {
+        if (relationshipInfo.isToMany()) {
             Iterable targetObjects = relationshipRepositoryForClass.findTargets(castedResourceId, jsonPath.getElementName());
             List newRelationships = new LinkedList<>();
             if (targetObjects != null) {
                 for (Object targetObject : targetObjects) {
-                    newRelationships.add(PropertyUtils.getProperty(targetObject, relationshipResourceIdName));
+                    newRelationships.add(relationshipIdAccessor.getValue(targetObject));
                 }
             }
             newRelationships.add(resourceId);
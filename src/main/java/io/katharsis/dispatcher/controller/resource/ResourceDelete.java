@@ -1,10 +1,12 @@
 package io.katharsis.dispatcher.controller.resource;
 
 import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.ControllerRoute;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 import io.katharsis.request.path.PathIds;
 import io.katharsis.request.path.ResourcePath;
 import io.katharsis.resource.exception.ResourceNotFoundException;
@@ -16,6 +18,7 @@ import io.katharsis.utils.parser.TypeParser;
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 
+@ControllerRoute(pathTypes = PathType.RESOURCE, collection = false, method = HttpMethod.DELETE)
 public class ResourceDelete implements BaseController {
 
     private ResourceRegistry resourceRegistry;
@@ -1,10 +1,12 @@
 package io.katharsis.dispatcher.controller.resource;
 
 import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.ControllerRoute;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 import io.katharsis.request.path.PathIds;
 import io.katharsis.request.path.ResourcePath;
 import io.katharsis.resource.exception.ResourceNotFoundException;
@@ -18,6 +20,7 @@ import io.katharsis.utils.parser.TypeParser;
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 
+@ControllerRoute(pathTypes = PathType.RESOURCE, collection = false, method = HttpMethod.GET)
 public class ResourceGet implements BaseController {
 
     private ResourceRegistry resourceRegistry;
@@ -64,6 +67,6 @@ public class ResourceGet implements BaseController {
         Serializable castedId = typeParser.parse(id, idClass);
         Object entity = registryEntry.getResourceRepository().findOne(castedId);
 
-        return new ResourceResponse(new Container(entity));
+        return new ResourceResponse(new Container(entity, requestParams));
     }
 }
@@ -1,9 +1,11 @@
 package io.katharsis.dispatcher.controller.resource;
 
+import io.katharsis.dispatcher.controller.ControllerRoute;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 import io.katharsis.request.path.ResourcePath;
 import io.katharsis.resource.exception.RequestBodyNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
@@ -16,6 +18,7 @@ import io.katharsis.utils.parser.TypeParser;
 
 import java.io.Serializable;
 
+@ControllerRoute(pathTypes = PathType.RESOURCE, collection = false, method = HttpMethod.PATCH)
 public class ResourcePatch extends ResourceUpsert {
 
     public ResourcePatch(ResourceRegistry resourceRegistry, TypeParser typeParser) {
@@ -1,10 +1,12 @@
 package io.katharsis.dispatcher.controller.resource;
 
+import io.katharsis.dispatcher.controller.ControllerRoute;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.request.dto.DataBody;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 import io.katharsis.request.path.ResourcePath;
 import io.katharsis.resource.exception.RequestBodyNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
@@ -13,11 +15,11 @@ import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.Container;
 import io.katharsis.response.ResourceResponse;
 import io.katharsis.utils.parser.TypeParser;
-import org.apache.commons.beanutils.PropertyUtils;
 
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 
+@ControllerRoute(pathTypes = PathType.RESOURCE, collection = true, method = HttpMethod.POST)
 public class ResourcePost extends ResourceUpsert {
 
     public ResourcePost(ResourceRegistry resourceRegistry, TypeParser typeParser) {
@@ -53,8 +55,7 @@ public class ResourcePost extends ResourceUpsert {
         Object savedResource = registryEntry.getResourceRepository().save(resource);
         saveRelations(savedResource, registryEntry, requestBody);
 
-        Serializable resourceId = (Serializable) PropertyUtils.getProperty(savedResource, registryEntry.getResourceInformation()
-                .getIdField().getName());
+        Serializable resourceId = (Serializable) registryEntry.getResourceInformation().getIdAccessor().getValue(savedResource);
 
         Object savedResourceWithRelations = registryEntry.getResourceRepository().findOne(resourceId);
 
@@ -5,16 +5,16 @@ import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.request.dto.DataBody;
 import io.katharsis.request.dto.Linkage;
 import io.katharsis.request.dto.RequestBody;
+import io.katharsis.resource.AttributeInfo;
+import io.katharsis.resource.RelationshipInfo;
 import io.katharsis.resource.ResourceInformation;
 import io.katharsis.resource.exception.ResourceException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.utils.parser.TypeParser;
-import org.apache.commons.beanutils.PropertyUtils;
 
 import java.io.Serializable;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.LinkedList;
 import java.util.List;
@@ -34,8 +34,8 @@ public abstract class ResourceUpsert implements BaseController {
             throws IllegalAccessException, NoSuchMethodException, InvocationTargetException, InstantiationException {
         if (requestBody.getData().getAttributes() != null) {
             for (Map.Entry<String, Object> property : requestBody.getData().getAttributes().getAttributes().entrySet()) {
-                Field attributeField = resourceInformation.findAttributeFieldByName(property.getKey());
-                PropertyUtils.setProperty(instance, attributeField.getName(), property.getValue());
+                AttributeInfo attributeInfo = resourceInformation.findAttributeInfoByName(property.getKey());
+                attributeInfo.getAccessor().setValue(instance, property.getValue());
             }
         }
     }
@@ -77,8 +77,8 @@ public abstract class ResourceUpsert implements BaseController {
 
         Class<?> relationshipClass = relationRegistryEntry.getResourceInformation().getResourceClass();
         RelationshipRepository relationshipRepository = registryEntry.getRelationshipRepositoryForClass(relationshipClass);
-        Field relationshipField = resourceInformation.findRelationshipFieldByName(property.getKey());
-        relationshipRepository.setRelations(savedResource, castedRelationIds, relationshipField.getName());
+        RelationshipInfo relationshipInfo = resourceInformation.findRelationshipInfoByName(property.getKey());
+        relationshipRepository.setRelations(savedResource, castedRelationIds, relationshipInfo.getName());
     }
 
     private boolean allTypesTheSame(Iterable<Linkage> linkages) {
@@ -109,8 +109,8 @@ public abstract class ResourceUpsert implements BaseController {
 
         Class<?> relationshipClass = relationRegistryEntry.getResourceInformation().getResourceClass();
         RelationshipRepository relationshipRepository = registryEntry.getRelationshipRepositoryForClass(relationshipClass);
-        Field relationshipField = resourceInformation.findRelationshipFieldByName(property.getKey());
-        relationshipRepository.setRelation(savedResource, castedRelationshipId, relationshipField.getName());
+        RelationshipInfo relationshipInfo = resourceInformation.findRelationshipInfoByName(property.getKey());
+        relationshipRepository.setRelation(savedResource, castedRelationshipId, relationshipInfo.getName());
     }
 
     private RegistryEntry getRelationRegistryEntry(String type) {
@@ -1,37 +1,72 @@
 package io.katharsis.dispatcher.registry;
 
 import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.ControllerRoute;
+import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathType;
 
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Holds all of the controllers. Controllers annotated with {@link ControllerRoute} are placed in a dispatch table
+ * indexed by path type, collection flag and HTTP method. Other controllers are searched one by one using
+ * {@link BaseController#isAcceptable(JsonPath, String)} if no routed controller matches the request.
+ */
 public class ControllerRegistry {
 
+    private static final int PATH_TYPES = PathType.values().length;
+    private static final int HTTP_METHODS = HttpMethod.values().length;
+
+    private final BaseController[] routes = new BaseController[PATH_TYPES * 2 * HTTP_METHODS];
     private final List<BaseController> controllers = new LinkedList<>();
 
     public ControllerRegistry(List<BaseController> baseControllers) {
         if (baseControllers != null) {
-            controllers.addAll(baseControllers);
+            for (BaseController baseController : baseControllers) {
+                addController(baseController);
+            }
         }
     }
 
     /**
-     * Adds Katharsis controller to the registry.
+     * Adds Katharsis controller to the registry. If there's already a controller registered for the same route, the
+     * first one is used.
      *
      * @param controller a controller to be added
      */
     public void addController(BaseController controller) {
-        controllers.add(controller);
+        ControllerRoute route = controller.getClass().getDeclaredAnnotation(ControllerRoute.class);
+        if (route == null) {
+            controllers.add(controller);
+            return;
+        }
+        for (PathType pathType : route.pathTypes()) {
+            int routeIdx = routeIndex(pathType, route.collection(), route.method());
+            if (routes[routeIdx] == null) {
+                routes[routeIdx] = controller;
+            }
+        }
     }
 
     /**
-     * Iterate over all registered controllers to get the first suitable one.
+     * Looks up the dispatch table to get a suitable controller. If none is found, iterates over controllers without
+     * declared route to get the first suitable one.
      * @param jsonPath built JsonPath object mad from request path
      * @param requestType type of a HTTP request
      * @return suitable controller
      */
     public BaseController getController(JsonPath jsonPath, String requestType) {
+        HttpMethod method = HttpMethod.fromName(requestType);
+        if (method != null) {
+            BaseController controller = routes[routeIndex(jsonPath.getPathType(), jsonPath.isCollection(), method)];
+            if (controller != null) {
+                return controller;
+            }
+        }
         for (BaseController controller : controllers) {
             if (controller.isAcceptable(jsonPath, requestType)) {
                 return controller;
@@ -40,4 +75,22 @@ public class ControllerRegistry {
         // @todo Create custom exception
         throw new IllegalStateException("Matching controller not found");
     }
+
+    /**
+     * @return all of the registered controllers, routed ones first
+     */
+    public Set<BaseController> getControllers() {
+        Set<BaseController> allControllers = new LinkedHashSet<>();
+        for (BaseController controller : routes) {
+            if (controller != null) {
+                allControllers.add(controller);
+            }
+        }
+        allControllers.addAll(controllers);
+        return allControllers;
+    }
+
+    private static int routeIndex(PathType pathType, boolean collection, HttpMethod method) {
+        return (pathType.ordinal() * 2 + (collection ? 1 : 0)) * HTTP_METHODS + method.ordinal();
+    }
 }
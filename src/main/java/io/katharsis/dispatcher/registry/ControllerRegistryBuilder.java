@@ -2,8 +2,8 @@ package io.katharsis.dispatcher.registry;
 
 import io.katharsis.dispatcher.controller.BaseController;
 import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.utils.ClassScanner;
 import io.katharsis.utils.parser.TypeParser;
-import org.reflections.Reflections;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -20,11 +20,22 @@ public class ControllerRegistryBuilder {
 
     public ControllerRegistry build(ResourceRegistry resourceRegistry, TypeParser typeParser) throws NoSuchMethodException,
             IllegalAccessException, InvocationTargetException, InstantiationException {
+        return build(new ClassScanner(), resourceRegistry, typeParser);
+    }
 
-        Reflections reflections = new Reflections("io.katharsis.dispatcher.controller");
+    /**
+     * Builds the registry using a scanner shared with other registry builders.
+     *
+     * @param classScanner     scanner used to find controllers
+     * @param resourceRegistry registry passed to controllers
+     * @param typeParser       parser passed to controllers
+     * @return an instance of ControllerRegistry
+     */
+    public ControllerRegistry build(ClassScanner classScanner, ResourceRegistry resourceRegistry, TypeParser typeParser)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
 
         Set<Class<? extends BaseController>> controllerClasses =
-                reflections.getSubTypesOf(BaseController.class);
+                classScanner.getSubTypesOf(BaseController.class, ClassScanner.CONTROLLERS_PACKAGE);
 
         List<BaseController> controllers = new LinkedList<>();
         for (Class<? extends BaseController> controllerClass : controllerClasses) {
@@ -1,5 +1,6 @@
 package io.katharsis.errorhandling.mapper;
 
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -15,6 +16,17 @@ public final class ExceptionMapperRegistry {
         return exceptionMappers;
     }
 
+    /**
+     * @return classes of all of the registered exception mappers
+     */
+    public Set<Class<?>> getExceptionMapperClasses() {
+        Set<Class<?>> exceptionMapperClasses = new LinkedHashSet<>();
+        for (ExceptionMapperType mapperType : exceptionMappers) {
+            exceptionMapperClasses.add(mapperType.getExceptionMapper().getClass());
+        }
+        return exceptionMapperClasses;
+    }
+
     public Optional<JsonApiExceptionMapper> findMapperFor(Class<? extends Throwable> exceptionClass) {
         int currentDistance = Integer.MAX_VALUE;
         JsonApiExceptionMapper closestExceptionMapper = null;
@@ -2,7 +2,7 @@ package io.katharsis.errorhandling.mapper;
 
 import io.katharsis.errorhandling.mapper.def.KatharsisExceptionMapper;
 import io.katharsis.resource.exception.init.InvalidResourceException;
-import org.reflections.Reflections;
+import io.katharsis.utils.ClassScanner;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -18,8 +18,13 @@ public final class ExceptionMapperRegistryBuilder {
     }
 
     public ExceptionMapperRegistry build(String resourceSearchPackage) throws IllegalAccessException, InstantiationException {
+        return build(new ClassScanner(resourceSearchPackage), resourceSearchPackage);
+    }
+
+    public ExceptionMapperRegistry build(ClassScanner classScanner, String resourceSearchPackage)
+            throws IllegalAccessException, InstantiationException {
         addKatharsisDefaultMappers();
-        scanForCustomMappers(resourceSearchPackage);
+        scanForCustomMappers(classScanner, resourceSearchPackage);
         return new ExceptionMapperRegistry(exceptionMappers);
     }
 
@@ -27,9 +32,10 @@ public final class ExceptionMapperRegistryBuilder {
         registerExceptionMapper(new KatharsisExceptionMapper());
     }
 
-    private void scanForCustomMappers(String resourceSearchPackage) throws InstantiationException, IllegalAccessException {
-        Reflections reflections = new Reflections(resourceSearchPackage);
-        Set<Class<?>> exceptionMapperClasses = reflections.getTypesAnnotatedWith(ExceptionMapperProvider.class);
+    private void scanForCustomMappers(ClassScanner classScanner, String resourceSearchPackage)
+            throws InstantiationException, IllegalAccessException {
+        Set<Class<?>> exceptionMapperClasses = classScanner.getTypesAnnotatedWith(ExceptionMapperProvider.class,
+                resourceSearchPackage);
 
         for (Class<?> exceptionMapperClazz : exceptionMapperClasses) {
             if (!JsonApiExceptionMapper.class.isAssignableFrom(exceptionMapperClazz)) {
@@ -0,0 +1,76 @@
+package io.katharsis.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.katharsis.errorhandling.exception.KatharsisInitalizationException;
+
+import java.util.Locale;
+
+/**
+ * Formats in which JSON API documents can be encoded. Binary formats are handled by Jackson's data format modules,
+ * which are optional dependencies and have to be added to the classpath by applications using them.
+ */
+public enum DataFormat {
+
+    JSON("com.fasterxml.jackson.core.JsonFactory", "application/vnd.api+json", "application/json"),
+    SMILE("com.fasterxml.jackson.dataformat.smile.SmileFactory", "application/x-jackson-smile"),
+    CBOR("com.fasterxml.jackson.dataformat.cbor.CBORFactory", "application/cbor");
+
+    private final String factoryClassName;
+    private final String[] mediaTypes;
+
+    DataFormat(String factoryClassName, String... mediaTypes) {
+        this.factoryClassName = factoryClassName;
+        this.mediaTypes = mediaTypes;
+    }
+
+    /**
+     * @return media type which should be used in <i>Content-Type</i> of documents encoded in the format
+     */
+    public String getMediaType() {
+        return mediaTypes[0];
+    }
+
+    /**
+     * Returns a format of a media type, e.g. taken from <i>Accept</i> or <i>Content-Type</i> header. Parameters of the
+     * media type are ignored.
+     *
+     * @param mediaType media type
+     * @return found format or <i>null</i> if the media type is not supported
+     */
+    public static DataFormat forMediaType(String mediaType) {
+        if (mediaType == null) {
+            return null;
+        }
+        int parametersIndex = mediaType.indexOf(';');
+        String type = (parametersIndex >= 0 ? mediaType.substring(0, parametersIndex) : mediaType)
+                .trim()
+                .toLowerCase(Locale.ROOT);
+        for (DataFormat dataFormat : values()) {
+            for (String formatMediaType : dataFormat.mediaTypes) {
+                if (formatMediaType.equals(type)) {
+                    return dataFormat;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a Jackson factory of generators and parsers of the format. The factory is loaded by name, so formats
+     * whose modules are not on the classpath don't prevent the others from being used.
+     *
+     * @return new factory
+     * @throws KatharsisInitalizationException if the data format module is not on the classpath
+     */
+    public JsonFactory createFactory() {
+        try {
+            return (JsonFactory) Class.forName(factoryClassName).newInstance();
+        } catch (ClassNotFoundException | NoClassDefFoundError e) {
+            throw new KatharsisInitalizationException(String.format("%s format requires %s on the classpath", name(),
+                    factoryClassName));
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new KatharsisInitalizationException(String.format("Cannot create %s: %s", factoryClassName,
+                    e.getMessage()));
+        }
+    }
+}
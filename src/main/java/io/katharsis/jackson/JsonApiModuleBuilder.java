@@ -19,12 +19,25 @@ public class JsonApiModuleBuilder {
      * @return {@link com.fasterxml.jackson.databind.Module} with custom serializers
      */
     public SimpleModule build(ResourceRegistry resourceRegistry) {
+        return build(resourceRegistry, false);
+    }
+
+    /**
+     * Creates Katharsis Jackson module with all required serializers
+     *
+     * @param resourceRegistry  initialized registry with all of the required resources
+     * @param lazyRelationships if true, linkage of relationships is written only for included relationships, as if
+     *                          all of them were marked as lazy
+     * @return {@link com.fasterxml.jackson.databind.Module} with custom serializers
+     * @see io.katharsis.resource.annotations.JsonApiToOne#lazy()
+     */
+    public SimpleModule build(ResourceRegistry resourceRegistry, boolean lazyRelationships) {
         SimpleModule simpleModule = new SimpleModule(JSON_API_MODULE_NAME,
                 new Version(1, 0, 0, null, null, null));
 
         simpleModule.addSerializer(new ContainerSerializer(resourceRegistry))
                 .addSerializer(new DataLinksContainerSerializer(resourceRegistry))
-                .addSerializer(new RelationshipContainerSerializer(resourceRegistry))
+                .addSerializer(new RelationshipContainerSerializer(resourceRegistry, lazyRelationships))
                 .addSerializer(new LinkageContainerSerializer(resourceRegistry))
                 .addSerializer(new BaseResponseSerializer(resourceRegistry));
 
@@ -0,0 +1,68 @@
+package io.katharsis.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.resource.registry.ResourceRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Provides an {@link ObjectMapper} with Katharsis serializers for each {@link DataFormat}. Integrations can pick a
+ * mapper by the media type a client asks for, so internal clients can exchange documents in a binary format, e.g.
+ * <pre>
+ * {@code
+ * DataFormat dataFormat = DataFormat.forMediaType(request.getHeader("Accept"));
+ * ObjectMapper objectMapper = objectMapperFactory.getObjectMapper(dataFormat != null ? dataFormat : DataFormat.JSON);
+ * }
+ * </pre>
+ * Each mapper has its own instance of the Katharsis module, because serializers cache values which depend on the
+ * mapper's configuration.
+ */
+public class ObjectMapperFactory {
+
+    private final ResourceRegistry resourceRegistry;
+    private final boolean lazyRelationships;
+    private final Map<DataFormat, ObjectMapper> objectMappers = new EnumMap<>(DataFormat.class);
+
+    public ObjectMapperFactory(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, false);
+    }
+
+    /**
+     * @param resourceRegistry  initialized registry with all of the required resources
+     * @param lazyRelationships passed to {@link JsonApiModuleBuilder#build(ResourceRegistry, boolean)}
+     */
+    public ObjectMapperFactory(ResourceRegistry resourceRegistry, boolean lazyRelationships) {
+        this.resourceRegistry = resourceRegistry;
+        this.lazyRelationships = lazyRelationships;
+    }
+
+    /**
+     * Returns a shared mapper of a format, creating it on the first call.
+     *
+     * @param dataFormat format of the documents
+     * @return mapper with Katharsis serializers
+     * @throws io.katharsis.errorhandling.exception.KatharsisInitalizationException if the format's module is missing
+     */
+    public synchronized ObjectMapper getObjectMapper(DataFormat dataFormat) {
+        ObjectMapper objectMapper = objectMappers.get(dataFormat);
+        if (objectMapper == null) {
+            objectMapper = createObjectMapper(dataFormat);
+            objectMappers.put(dataFormat, objectMapper);
+        }
+        return objectMapper;
+    }
+
+    /**
+     * Creates a new mapper of a format, which can be further configured by the caller.
+     *
+     * @param dataFormat format of the documents
+     * @return mapper with Katharsis serializers
+     * @throws io.katharsis.errorhandling.exception.KatharsisInitalizationException if the format's module is missing
+     */
+    public ObjectMapper createObjectMapper(DataFormat dataFormat) {
+        ObjectMapper objectMapper = new ObjectMapper(dataFormat.createFactory());
+        objectMapper.registerModule(new JsonApiModuleBuilder().build(resourceRegistry, lazyRelationships));
+        return objectMapper;
+    }
+}
@@ -0,0 +1,119 @@
+package io.katharsis.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.katharsis.response.BaseResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes responses directly to an {@link OutputStream} or a {@link WritableByteChannel}, so integrations don't have
+ * to build the whole document as a String first. The serializer of {@link BaseResponse} is resolved once, generators
+ * get their internal buffers from Jackson's per-thread buffer recycler and channels are written through a byte buffer
+ * reused by the thread. Streams and channels are flushed but not closed.
+ * <p>
+ * The writer is thread-safe and should be shared, e.g. one instance per {@link ObjectMapper}.
+ */
+public class ResponseWriter {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Buffers of channel writes. A buffer is taken out while it's used, so a nested write on the same thread gets a
+     * new one.
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFERS = new ThreadLocal<>();
+
+    private final ObjectWriter objectWriter;
+
+    /**
+     * @param objectMapper mapper with the Katharsis module registered, e.g. one of {@link ObjectMapperFactory}
+     */
+    public ResponseWriter(ObjectMapper objectMapper) {
+        this.objectWriter = objectMapper.writerFor(BaseResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * @param response     response to be written
+     * @param outputStream target of the document, left open
+     * @throws IOException if the response cannot be serialized or written
+     */
+    public void write(BaseResponse<?> response, OutputStream outputStream) throws IOException {
+        objectWriter.writeValue(outputStream, response);
+    }
+
+    /**
+     * @param response response to be written
+     * @param channel  blocking channel which is the target of the document, left open
+     * @throws IOException if the response cannot be serialized or written
+     */
+    public void write(BaseResponse<?> response, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = BUFFERS.get();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        } else {
+            BUFFERS.set(null);
+        }
+        try {
+            buffer.clear();
+            ChannelOutputStream outputStream = new ChannelOutputStream(channel, buffer);
+            objectWriter.writeValue(outputStream, response);
+            // the generator flushes the stream only if FLUSH_PASSED_TO_STREAM is enabled
+            outputStream.flush();
+        } finally {
+            BUFFERS.set(buffer);
+        }
+    }
+
+    /**
+     * Collects bytes in a buffer and writes it to a channel when it's full or flushed.
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        private ChannelOutputStream(WritableByteChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -1,41 +1,73 @@
 package io.katharsis.jackson.serializer;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import io.katharsis.jackson.exception.JsonSerializationException;
-import io.katharsis.request.dto.Attributes;
-import io.katharsis.resource.ResourceFieldNameTransformer;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.resource.AttributeInfo;
+import io.katharsis.resource.RelationshipInfo;
 import io.katharsis.resource.ResourceInformation;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistrySnapshot;
 import io.katharsis.response.Container;
 import io.katharsis.response.DataLinksContainer;
-import org.apache.commons.beanutils.BeanUtils;
-import org.apache.commons.beanutils.PropertyUtils;
+import io.katharsis.response.ResourceSerializationContext;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class serializes an single resource which can be included in <i>data</i> field of JSON API response.
+ * <p>
+ * The instance registered in a module can be shared by several mappers with different configurations, so it only
+ * creates contextual instances, which Jackson keeps per mapper. Serializers of attribute values are cached by the
+ * contextual instances.
  *
  * @see Container
  */
-public class ContainerSerializer extends JsonSerializer<Container> {
+public class ContainerSerializer extends JsonSerializer<Container> implements ContextualSerializer {
 
-    private static final String TYPE_FIELD_NAME = "type";
-    private static final String ID_FIELD_NAME = "id";
-    private static final String ATTRIBUTES_FIELD_NAME = "attributes";
-    private static final String RELATIONSHIPS_FIELD_NAME = "relationships";
-    private static final ResourceFieldNameTransformer RESOURCE_FIELD_NAME_TRANSFORMER = new ResourceFieldNameTransformer();
+    private static final SerializedString TYPE_FIELD_NAME = new SerializedString("type");
+    private static final SerializedString ID_FIELD_NAME = new SerializedString("id");
+    private static final SerializedString ATTRIBUTES_FIELD_NAME = new SerializedString("attributes");
+    private static final SerializedString RELATIONSHIPS_FIELD_NAME = new SerializedString("relationships");
 
     private ResourceRegistry resourceRegistry;
 
+    /**
+     * Serializers of attribute values indexed by resource class, <i>null</i> unless the instance is contextual. They
+     * are resolved on the first use, because they depend on the configuration of the mapper.
+     */
+    private final ConcurrentMap<Class<?>, AttributeSerializers> attributeSerializers;
+
     public ContainerSerializer(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, null);
+    }
+
+    private ContainerSerializer(ResourceRegistry resourceRegistry,
+                                ConcurrentMap<Class<?>, AttributeSerializers> attributeSerializers) {
         this.resourceRegistry = resourceRegistry;
+        this.attributeSerializers = attributeSerializers;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) {
+        if (attributeSerializers != null) {
+            return this;
+        }
+        return new ContainerSerializer(resourceRegistry, new ConcurrentHashMap<>());
     }
 
     @Override
@@ -43,7 +75,7 @@ public class ContainerSerializer extends JsonSerializer<Container> {
 
         if (value != null && value.getData() != null) {
             gen.writeStartObject();
-            writeData(gen, value.getData());
+            writeData(gen, value, serializers);
             gen.writeEndObject();
         } else {
             gen.writeObject(null);
@@ -52,60 +84,150 @@ public class ContainerSerializer extends JsonSerializer<Container> {
 
     /**
      * Writes a value. Each serialized container must contain type field whose value is string
-     * <a href="http://jsonapi.org/format/#document-structure-resource-types"></a>.
+     * <a href="http://jsonapi.org/format/#document-structure-resource-types"></a>. If the request asks for a sparse
+     * fieldset of the type, other attributes and relationships are neither read nor written. The type, entry and URL
+     * of the resource are resolved against a single registry snapshot.
      */
-    private void writeData(JsonGenerator gen, Object data) throws IOException {
+    private void writeData(JsonGenerator gen, Container container, SerializerProvider serializers) throws IOException {
+        Object data = container.getData();
+        RequestParams requestParams = container.getRequestParams();
         Class<?> dataClass = data.getClass();
-        String resourceType = resourceRegistry.getResourceType(dataClass);
+        ResourceRegistrySnapshot registrySnapshot = resourceRegistry.getSnapshot();
+        String resourceType = registrySnapshot.getResourceType(dataClass);
 
-        gen.writeStringField(TYPE_FIELD_NAME, resourceType);
+        gen.writeFieldName(TYPE_FIELD_NAME);
+        gen.writeString(resourceType);
 
-        RegistryEntry entry = resourceRegistry.getEntry(dataClass);
+        RegistryEntry entry = registrySnapshot.getEntry(dataClass);
         ResourceInformation resourceInformation = entry.getResourceInformation();
+        Set<String> includedFields = requestParams != null ? requestParams.getIncludedFields(resourceType) : null;
+        ResourceSerializationContext serializationContext;
         try {
-            writeId(gen, data, resourceInformation.getIdField());
+            serializationContext = ResourceSerializationContext.create(data, entry, registrySnapshot.getResourceUrl(dataClass),
+                    requestParams, container.getIncludePaths());
         } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new JsonSerializationException("Exception while writing id field", e);
         }
+        writeId(gen, serializationContext);
 
         try {
-            writeAttributes(gen, data, resourceInformation.getAttributeFields());
+            writeAttributes(gen, data, resourceInformation, includedFields, serializers);
         } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new JsonSerializationException("Exception while writing basic fields", e);
         }
 
-        writeRelationshipFields(gen, data, resourceInformation.getRelationshipFields());
+        writeRelationshipFields(gen, data, getRelationshipFields(resourceInformation, includedFields),
+                serializationContext);
     }
 
     /**
      * The id MUST be written as a string
      * <a href="http://jsonapi.org/format/#document-structure-resource-ids">Resource IDs</a>.
      */
-    private void writeId(JsonGenerator gen, Object data, Field idField)
-            throws IllegalAccessException, InvocationTargetException, NoSuchMethodException, IOException {
-        String sourceId = BeanUtils.getProperty(data, idField.getName());
-        gen.writeObjectField(ID_FIELD_NAME, sourceId);
+    private void writeId(JsonGenerator gen, ResourceSerializationContext serializationContext) throws IOException {
+        gen.writeFieldName(ID_FIELD_NAME);
+        gen.writeObject(serializationContext.getId());
     }
 
-    private void writeAttributes(JsonGenerator gen, Object data, Set<Field> attributeFields)
+    /**
+     * Writes attributes directly to the generator. Names are written in their pre-encoded form and values with
+     * serializers resolved once per attribute, unless the declared type of an attribute can hold subclasses.
+     */
+    private void writeAttributes(JsonGenerator gen, Object data, ResourceInformation resourceInformation,
+                                 Set<String> includedFields, SerializerProvider serializers)
             throws IllegalAccessException, InvocationTargetException, NoSuchMethodException, IOException {
+        JsonSerializer<Object>[] valueSerializers = getAttributeSerializers(resourceInformation, serializers);
+
+        gen.writeFieldName(ATTRIBUTES_FIELD_NAME);
+        gen.writeStartObject();
+        int index = 0;
+        for (AttributeInfo attributeInfo : resourceInformation.getAttributeInfos()) {
+            JsonSerializer<Object> valueSerializer = valueSerializers[index++];
+            if (!attributeInfo.getField().isSynthetic()
+                    && (includedFields == null || includedFields.contains(attributeInfo.getJsonName()))) {
+                Object basicFieldValue = attributeInfo.getAccessor().getValue(data);
+                gen.writeFieldName(attributeInfo.getSerializedJsonName());
+                if (basicFieldValue == null) {
+                    serializers.defaultSerializeNull(gen);
+                } else if (valueSerializer != null) {
+                    valueSerializer.serialize(basicFieldValue, gen, serializers);
+                } else {
+                    serializers.findTypedValueSerializer(basicFieldValue.getClass(), true, null)
+                            .serialize(basicFieldValue, gen, serializers);
+                }
+            }
+        }
+        gen.writeEndObject();
+    }
 
-        Attributes attributesObject = new Attributes();
-        for (Field attributeField : attributeFields) {
-            if (!attributeField.isSynthetic()) {
-                Object basicFieldValue = PropertyUtils.getProperty(data, attributeField.getName());
-                attributesObject.addAttribute(RESOURCE_FIELD_NAME_TRANSFORMER.getName(attributeField), basicFieldValue);
+    private JsonSerializer<Object>[] getAttributeSerializers(ResourceInformation resourceInformation,
+                                                             SerializerProvider serializers) throws IOException {
+        if (attributeSerializers == null) {
+            return resolveAttributeSerializers(resourceInformation.getAttributeInfos(), serializers);
+        }
+        AttributeSerializers cached = attributeSerializers.get(resourceInformation.getResourceClass());
+        if (cached == null || cached.resourceInformation != resourceInformation) {
+            cached = new AttributeSerializers(resourceInformation,
+                    resolveAttributeSerializers(resourceInformation.getAttributeInfos(), serializers));
+            attributeSerializers.put(resourceInformation.getResourceClass(), cached);
+        }
+        return cached.serializers;
+    }
+
+    /**
+     * Resolves serializers of attributes whose declared type is final. Other attributes have a <i>null</i>
+     * serializer and are serialized according to the runtime class of their values.
+     */
+    @SuppressWarnings("unchecked")
+    private static JsonSerializer<Object>[] resolveAttributeSerializers(Collection<AttributeInfo> attributeInfos,
+                                                                        SerializerProvider serializers)
+            throws IOException {
+        JsonSerializer<Object>[] valueSerializers = new JsonSerializer[attributeInfos.size()];
+        int index = 0;
+        for (AttributeInfo attributeInfo : attributeInfos) {
+            Field field = attributeInfo.getField();
+            Class<?> type = field.getType();
+            if (type.isPrimitive() || Modifier.isFinal(type.getModifiers())) {
+                valueSerializers[index] = serializers
+                        .findTypedValueSerializer(serializers.constructType(field.getGenericType()), true, null);
             }
+            index++;
         }
-        gen.writeObjectField(ATTRIBUTES_FIELD_NAME, attributesObject);
+        return valueSerializers;
     }
 
-    private void writeRelationshipFields(JsonGenerator gen, Object data, Set<Field> relationshipFields) throws IOException {
-        DataLinksContainer dataLinksContainer = new DataLinksContainer(data, relationshipFields);
-        gen.writeObjectField(RELATIONSHIPS_FIELD_NAME, dataLinksContainer);
+    private static Set<Field> getRelationshipFields(ResourceInformation resourceInformation, Set<String> includedFields) {
+        if (includedFields == null) {
+            return resourceInformation.getRelationshipFields();
+        }
+        Set<Field> relationshipFields = new LinkedHashSet<>();
+        for (Field relationshipField : resourceInformation.getRelationshipFields()) {
+            RelationshipInfo relationshipInfo = resourceInformation.getRelationshipInfo(relationshipField.getName());
+            if (includedFields.contains(relationshipInfo.getJsonName())) {
+                relationshipFields.add(relationshipField);
+            }
+        }
+        return relationshipFields;
+    }
+
+    private void writeRelationshipFields(JsonGenerator gen, Object data, Set<Field> relationshipFields,
+                                         ResourceSerializationContext serializationContext) throws IOException {
+        DataLinksContainer dataLinksContainer = new DataLinksContainer(data, relationshipFields, serializationContext);
+        gen.writeFieldName(RELATIONSHIPS_FIELD_NAME);
+        gen.writeObject(dataLinksContainer);
     }
 
     public Class<Container> handledType() {
         return Container.class;
     }
+
+    private static final class AttributeSerializers {
+        private final ResourceInformation resourceInformation;
+        private final JsonSerializer<Object>[] serializers;
+
+        private AttributeSerializers(ResourceInformation resourceInformation, JsonSerializer<Object>[] serializers) {
+            this.resourceInformation = resourceInformation;
+            this.serializers = serializers;
+        }
+    }
 }
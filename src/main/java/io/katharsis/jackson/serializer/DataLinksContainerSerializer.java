@@ -4,12 +4,12 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import io.katharsis.jackson.exception.JsonSerializationException;
-import io.katharsis.resource.ResourceFieldNameTransformer;
+import io.katharsis.resource.ResourceInformation;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.DataLinksContainer;
 import io.katharsis.response.RelationshipContainer;
-import org.apache.commons.beanutils.BeanUtils;
+import io.katharsis.response.ResourceSerializationContext;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -22,7 +22,6 @@ import java.lang.reflect.InvocationTargetException;
 public class DataLinksContainerSerializer extends JsonSerializer<DataLinksContainer> {
 
     private static final String SELF_FIELD_NAME = "self";
-    private static final ResourceFieldNameTransformer RESOURCE_FIELD_NAME_TRANSFORMER = new ResourceFieldNameTransformer();
 
     private ResourceRegistry resourceRegistry;
 
@@ -34,31 +33,48 @@ public class DataLinksContainerSerializer extends JsonSerializer<DataLinksContai
     public void serialize(DataLinksContainer dataLinksContainer, JsonGenerator gen, SerializerProvider serializers) throws IOException {
         gen.writeStartObject();
 
-        writeSelfLink(dataLinksContainer, gen);
-        writeRelationshipFields(dataLinksContainer, gen);
+        RegistryEntry entry = resourceRegistry.getEntry(dataLinksContainer.getData().getClass());
+        ResourceSerializationContext serializationContext = getSerializationContext(resourceRegistry, dataLinksContainer, entry);
+        DataLinksContainer linksContainer = dataLinksContainer;
+        if (dataLinksContainer.getSerializationContext() == null) {
+            linksContainer = new DataLinksContainer(dataLinksContainer.getData(), dataLinksContainer.getRelationshipFields(),
+                    serializationContext);
+        }
+        writeSelfLink(serializationContext, gen);
+        writeRelationshipFields(linksContainer, entry, gen);
 
         gen.writeEndObject();
     }
 
-    private void writeSelfLink(DataLinksContainer dataLinksContainer, JsonGenerator gen) throws IOException {
-        Class<?> sourceClass = dataLinksContainer.getData().getClass();
-        String resourceUrl = resourceRegistry.getResourceUrl(sourceClass);
-        RegistryEntry entry = resourceRegistry.getEntry(sourceClass);
-        Field idField = entry.getResourceInformation().getIdField();
-
-        String sourceId;
+    /**
+     * Returns the context resolved by the resource's serializer or resolves it if the container has been created
+     * without one.
+     */
+    static ResourceSerializationContext getSerializationContext(ResourceRegistry resourceRegistry,
+                                                                DataLinksContainer dataLinksContainer, RegistryEntry entry)
+            throws JsonSerializationException {
+        ResourceSerializationContext serializationContext = dataLinksContainer.getSerializationContext();
+        if (serializationContext != null) {
+            return serializationContext;
+        }
+        Object data = dataLinksContainer.getData();
         try {
-            sourceId = BeanUtils.getProperty(dataLinksContainer.getData(), idField.getName());
+            return ResourceSerializationContext.create(data, entry, resourceRegistry.getResourceUrl(data.getClass()));
         } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new JsonSerializationException("Exception while writing links", e);
         }
-        gen.writeStringField(SELF_FIELD_NAME, resourceUrl + "/" + sourceId);
     }
 
-    private void writeRelationshipFields(DataLinksContainer dataLinksContainer, JsonGenerator gen) throws IOException {
+    private void writeSelfLink(ResourceSerializationContext serializationContext, JsonGenerator gen) throws IOException {
+        gen.writeStringField(SELF_FIELD_NAME, serializationContext.getSelfUrl());
+    }
+
+    private void writeRelationshipFields(DataLinksContainer dataLinksContainer, RegistryEntry entry, JsonGenerator gen)
+            throws IOException {
+        ResourceInformation resourceInformation = entry.getResourceInformation();
         for (Field field : dataLinksContainer.getRelationshipFields()) {
             RelationshipContainer relationshipContainer = new RelationshipContainer(dataLinksContainer, field);
-            gen.writeObjectField(RESOURCE_FIELD_NAME_TRANSFORMER.getName(field), relationshipContainer);
+            gen.writeObjectField(resourceInformation.getRelationshipInfo(field.getName()).getJsonName(), relationshipContainer);
         }
     }
 
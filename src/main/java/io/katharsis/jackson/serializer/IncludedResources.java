@@ -0,0 +1,383 @@
+package io.katharsis.jackson.serializer;
+
+import io.katharsis.jackson.exception.JsonSerializationException;
+import io.katharsis.queryParams.IncludePath;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.resource.RelationshipInfo;
+import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistrySnapshot;
+import io.katharsis.response.Container;
+import io.katharsis.response.ResourceSerializationContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects included resources of a response
+ * <a href="http://jsonapi.org/format/#fetching-includes">Inclusion of Related Resources</a>.
+ * <p>
+ * Relationships marked by {@link io.katharsis.resource.annotations.JsonApiIncludeByDefault} are included as returned
+ * by their getters. Relationships requested by the <i>include</i> parameter, e.g. <i>include=project,assignee.team</i>,
+ * are loaded in batches: ids of related resources are collected across all of the primary resources first, then the
+ * resources of each type are loaded by a single {@link io.katharsis.repository.ResourceRepository#findAll(Iterable,
+ * RequestParams)} call, which gets the request parameters without filters, sorting and pagination of the primary
+ * data. Nested paths are resolved the same way, one level at a time. Unknown relationships in the paths are ignored.
+ * Relationships left out by the sparse fieldset of a resource type are neither read nor included.
+ * <p>
+ * Only ids are read from the objects returned by relationship getters. A resource which the repository doesn't return is
+ * included as returned by the getter.
+ * <p>
+ * Included resources are de-duplicated by type and id. A resource which is a part of the primary data is not included,
+ * even if the primary resource comes after the resource which refers to it. Keys of primary resources are kept only
+ * for the types which can be included in the response, so a streamed collection of other types doesn't retain
+ * anything per resource. Included resources are serialized with the request parameters of the primary data and the
+ * include paths which lead to them.
+ */
+class IncludedResources {
+
+    private final ResourceRegistry resourceRegistry;
+    private final Set<ResourceKey> primaryKeys = new HashSet<>();
+    private final Map<ResourceKey, Object> included = new LinkedHashMap<>();
+    private final Map<ResourceKey, List<IncludePath>> includedPaths = new HashMap<>();
+    private final Set<ResourceKey> loadedKeys = new HashSet<>();
+    private final List<Container> includedWithoutId = new LinkedList<>();
+    private RequestParams requestParams;
+    private RequestParams loadRequestParams;
+    private IncludePath includePath;
+
+    /**
+     * Entries of the types which can be included, resolved on the first primary resource, see
+     * {@link #findIncludableEntries()}.
+     */
+    private Set<RegistryEntry> includableEntries;
+
+    /**
+     * Related resources requested by include paths which have not been loaded yet, grouped by their type and id.
+     */
+    private Map<RegistryEntry, Map<String, PendingResource>> pendingResources = new LinkedHashMap<>();
+
+    IncludedResources(ResourceRegistry resourceRegistry) {
+        this.resourceRegistry = resourceRegistry;
+    }
+
+    /**
+     * Adds a resource of the primary data and collects its related resources.
+     *
+     * @param resource      primary resource
+     * @param requestParams parameters of the request, can be <i>null</i>
+     * @throws JsonSerializationException if an id or a relationship cannot be read
+     */
+    void addPrimary(Object resource, RequestParams requestParams) throws JsonSerializationException {
+        if (this.requestParams == null && requestParams != null) {
+            this.requestParams = requestParams;
+            this.loadRequestParams = requestParams.withoutPrimaryDataParams();
+            this.includePath = requestParams.getIncludePath();
+            this.includableEntries = null;
+        }
+        if (includableEntries == null) {
+            includableEntries = findIncludableEntries();
+        }
+        RegistryEntry entry = resourceRegistry.getEntry(resource.getClass());
+        if (includableEntries.contains(entry)) {
+            ResourceKey key = getKey(entry, resource);
+            if (key != null) {
+                primaryKeys.add(key);
+            }
+        }
+        collectRelated(resource, includePath, true, pendingResources);
+    }
+
+    /**
+     * @return number of primary resources whose keys are kept to keep them out of the included resources
+     */
+    int getPrimaryKeyCount() {
+        return primaryKeys.size();
+    }
+
+    /**
+     * Returns entries of the targets of relationships included by default and of relationships in the include path,
+     * starting from any registered type, as the types of primary resources are not known in advance.
+     */
+    private Set<RegistryEntry> findIncludableEntries() {
+        ResourceRegistrySnapshot snapshot = resourceRegistry.getSnapshot();
+        Set<RegistryEntry> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (RegistryEntry entry : snapshot.getEntries().values()) {
+            for (Object relationship : entry.getResourceInformation().getRelationshipInfos()) {
+                RelationshipInfo relationshipInfo = (RelationshipInfo) relationship;
+                if (relationshipInfo.isIncludeByDefault()) {
+                    addEntry(entries, snapshot.findEntry(relationshipInfo.getTargetClass()));
+                }
+            }
+            if (includePath != null) {
+                addPathTargets(entries, snapshot, entry, includePath);
+            }
+        }
+        return entries;
+    }
+
+    private static void addPathTargets(Set<RegistryEntry> entries, ResourceRegistrySnapshot snapshot,
+                                       RegistryEntry entry, IncludePath path) {
+        for (Object relationship : entry.getResourceInformation().getRelationshipInfos()) {
+            RelationshipInfo relationshipInfo = (RelationshipInfo) relationship;
+            IncludePath childPath = path.getChild(relationshipInfo.getJsonName());
+            RegistryEntry targetEntry = childPath != null ? snapshot.findEntry(relationshipInfo.getTargetClass()) : null;
+            if (targetEntry != null) {
+                entries.add(targetEntry);
+                addPathTargets(entries, snapshot, targetEntry, childPath);
+            }
+        }
+    }
+
+    private static void addEntry(Set<RegistryEntry> entries, RegistryEntry entry) {
+        if (entry != null) {
+            entries.add(entry);
+        }
+    }
+
+    /**
+     * Loads resources requested by include paths and returns all included resources.
+     *
+     * @return containers of included resources in the order they were found
+     * @throws JsonSerializationException if an id or a relationship cannot be read
+     */
+    List<Container> resolve() throws JsonSerializationException {
+        while (!pendingResources.isEmpty()) {
+            Map<RegistryEntry, Map<String, PendingResource>> nextResources = new LinkedHashMap<>();
+            for (Map.Entry<RegistryEntry, Map<String, PendingResource>> typeResources : pendingResources.entrySet()) {
+                RegistryEntry entry = typeResources.getKey();
+                Map<String, Object> loadedResources = load(entry, typeResources.getValue());
+                for (Map.Entry<String, PendingResource> pendingResource : typeResources.getValue().entrySet()) {
+                    ResourceKey key = new ResourceKey(entry, pendingResource.getKey());
+                    Object resource = pendingResource.getValue().resource;
+                    if (!primaryKeys.contains(key)) {
+                        Object loadedResource = loadedResources.get(pendingResource.getKey());
+                        if (loadedResource != null) {
+                            included.put(key, loadedResource);
+                            loadedKeys.add(key);
+                        } else {
+                            included.putIfAbsent(key, resource);
+                        }
+                        resource = included.get(key);
+                        addIncludePaths(key, pendingResource.getValue().includePaths);
+                    }
+                    for (IncludePath path : pendingResource.getValue().includePaths) {
+                        collectRelated(resource, path, false, nextResources);
+                    }
+                }
+            }
+            pendingResources = nextResources;
+        }
+
+        List<Container> containers = new ArrayList<>(included.size() + includedWithoutId.size());
+        for (Map.Entry<ResourceKey, Object> includedResource : included.entrySet()) {
+            if (!primaryKeys.contains(includedResource.getKey())) {
+                List<IncludePath> paths = includedPaths.get(includedResource.getKey());
+                containers.add(new Container<>(includedResource.getValue(), requestParams,
+                        paths != null ? paths : Collections.<IncludePath>emptyList()));
+            }
+        }
+        containers.addAll(includedWithoutId);
+        return containers;
+    }
+
+    /**
+     * Reads relationships of a resource which are either in the include path or, if <i>includeByDefault</i> is set,
+     * marked to be included by default. The former are added to the pending resources, the latter are included.
+     * Relationships which are not in the sparse fieldset of the resource type are not written, so their getters are
+     * not called.
+     */
+    private void collectRelated(Object resource, IncludePath includePath, boolean includeByDefault,
+                                Map<RegistryEntry, Map<String, PendingResource>> pending)
+            throws JsonSerializationException {
+        ResourceRegistrySnapshot snapshot = resourceRegistry.getSnapshot();
+        Class<?> resourceClass = resource.getClass();
+        RegistryEntry entry = snapshot.getEntry(resourceClass);
+        Set<String> includedFields = requestParams != null
+                ? requestParams.getIncludedFields(snapshot.getResourceType(resourceClass)) : null;
+        for (Object relationship : entry.getResourceInformation().getRelationshipInfos()) {
+            RelationshipInfo relationshipInfo = (RelationshipInfo) relationship;
+            if (includedFields != null && !includedFields.contains(relationshipInfo.getJsonName())) {
+                continue;
+            }
+            IncludePath childPath = includePath != null ? includePath.getChild(relationshipInfo.getJsonName()) : null;
+            if (childPath == null && !(includeByDefault && relationshipInfo.isIncludeByDefault())) {
+                continue;
+            }
+            for (Object relatedResource : getRelated(relationshipInfo, resource)) {
+                if (childPath != null) {
+                    addPending(relatedResource, childPath, pending);
+                } else {
+                    addIncluded(relatedResource);
+                }
+            }
+        }
+    }
+
+    private void addIncluded(Object resource) throws JsonSerializationException {
+        ResourceKey key = getKey(resourceRegistry.getEntry(resource.getClass()), resource);
+        if (key == null) {
+            includedWithoutId.add(new Container<>(resource, requestParams, Collections.<IncludePath>emptyList()));
+        } else {
+            included.putIfAbsent(key, resource);
+        }
+    }
+
+    private void addPending(Object resource, IncludePath includePath,
+                            Map<RegistryEntry, Map<String, PendingResource>> pending)
+            throws JsonSerializationException {
+        RegistryEntry entry = resourceRegistry.getEntry(resource.getClass());
+        Object id = getId(entry, resource);
+        if (id == null) {
+            includedWithoutId.add(new Container<>(resource, requestParams, Collections.singletonList(includePath)));
+            return;
+        }
+        String idString = ResourceSerializationContext.toIdString(id);
+        Map<String, PendingResource> typeResources = pending.get(entry);
+        if (typeResources == null) {
+            typeResources = new LinkedHashMap<>();
+            pending.put(entry, typeResources);
+        }
+        PendingResource pendingResource = typeResources.get(idString);
+        if (pendingResource == null) {
+            pendingResource = new PendingResource(resource, id);
+            typeResources.put(idString, pendingResource);
+        }
+        if (!pendingResource.includePaths.contains(includePath)) {
+            pendingResource.includePaths.add(includePath);
+        }
+    }
+
+    /**
+     * Records the include paths which lead to an included resource, so lazy relationships of the resource are written
+     * if a path continues with them.
+     */
+    private void addIncludePaths(ResourceKey key, List<IncludePath> paths) {
+        List<IncludePath> keyPaths = includedPaths.get(key);
+        if (keyPaths == null) {
+            keyPaths = new ArrayList<>(paths.size());
+            includedPaths.put(key, keyPaths);
+        }
+        for (IncludePath path : paths) {
+            if (!keyPaths.contains(path)) {
+                keyPaths.add(path);
+            }
+        }
+    }
+
+    /**
+     * Loads resources of a type by their ids with a single repository call. Resources which are a part of the primary
+     * data or have been loaded at an earlier level are not loaded again.
+     *
+     * @return loaded resources indexed by their ids
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> load(RegistryEntry entry, Map<String, PendingResource> resources)
+            throws JsonSerializationException {
+        if (entry.getResourceRepositoryClass() == null) {
+            return Collections.emptyMap();
+        }
+        List<Object> ids = new ArrayList<>(resources.size());
+        for (Map.Entry<String, PendingResource> resource : resources.entrySet()) {
+            ResourceKey key = new ResourceKey(entry, resource.getKey());
+            if (!primaryKeys.contains(key) && !loadedKeys.contains(key)) {
+                ids.add(resource.getValue().id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Iterable<?> loadedResources = entry.getResourceRepository().findAll((Iterable) ids, loadRequestParams);
+        if (loadedResources == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> resourcesById = new HashMap<>();
+        for (Object loadedResource : loadedResources) {
+            if (loadedResource != null) {
+                ResourceKey key = getKey(resourceRegistry.getEntry(loadedResource.getClass()), loadedResource);
+                if (key != null) {
+                    resourcesById.put(key.id, loadedResource);
+                }
+            }
+        }
+        return resourcesById;
+    }
+
+    private static Iterable<?> getRelated(RelationshipInfo relationshipInfo, Object resource)
+            throws JsonSerializationException {
+        Object targetDataObj;
+        try {
+            targetDataObj = relationshipInfo.getValue(resource);
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new JsonSerializationException("Exception while reading relationship field", e);
+        }
+        if (targetDataObj == null) {
+            return Collections.emptyList();
+        } else if (targetDataObj instanceof Iterable) {
+            return (Iterable<?>) targetDataObj;
+        }
+        return Collections.singletonList(targetDataObj);
+    }
+
+    private static Object getId(RegistryEntry entry, Object resource) throws JsonSerializationException {
+        try {
+            return entry.getResourceInformation().getIdAccessor().getValue(resource);
+        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new JsonSerializationException("Exception while reading id field", e);
+        }
+    }
+
+    /**
+     * Returns the type and id of a resource, or <i>null</i> if the resource has no id and cannot be de-duplicated.
+     */
+    private static ResourceKey getKey(RegistryEntry entry, Object resource) throws JsonSerializationException {
+        String id = ResourceSerializationContext.toIdString(getId(entry, resource));
+        return id != null ? new ResourceKey(entry, id) : null;
+    }
+
+    private static final class PendingResource {
+        private final Object resource;
+        private final Object id;
+        private final List<IncludePath> includePaths = new ArrayList<>(1);
+
+        private PendingResource(Object resource, Object id) {
+            this.resource = resource;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Identifies a resource by its registry entry, which stands for the resource type, and its id.
+     */
+    private static final class ResourceKey {
+        private final RegistryEntry entry;
+        private final String id;
+
+        private ResourceKey(RegistryEntry entry, String id) {
+            this.entry = entry;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ResourceKey that = (ResourceKey) o;
+            return entry == that.entry && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(entry) + id.hashCode();
+        }
+    }
+}
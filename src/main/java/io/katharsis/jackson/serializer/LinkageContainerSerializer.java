@@ -5,10 +5,10 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.LinkageContainer;
-import org.apache.commons.beanutils.BeanUtils;
+import io.katharsis.response.ResourceSerializationContext;
+import io.katharsis.utils.PropertyAccessor;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 
 /**
@@ -46,8 +46,8 @@ public class LinkageContainerSerializer extends JsonSerializer<LinkageContainer>
 
     private void writeId(JsonGenerator gen, LinkageContainer linkageContainer)
             throws IllegalAccessException, InvocationTargetException, NoSuchMethodException, IOException {
-        Field idField = linkageContainer.getRelationshipEntry().getResourceInformation().getIdField();
-        String sourceId = BeanUtils.getProperty(linkageContainer.getObjectItem(), idField.getName());
+        PropertyAccessor idAccessor = linkageContainer.getRelationshipEntry().getResourceInformation().getIdAccessor();
+        String sourceId = ResourceSerializationContext.toIdString(idAccessor.getValue(linkageContainer.getObjectItem()));
         gen.writeObjectField(ID_FIELD_NAME, sourceId);
     }
 
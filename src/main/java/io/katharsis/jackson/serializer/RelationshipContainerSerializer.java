@@ -5,16 +5,15 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import io.katharsis.jackson.exception.JsonSerializationException;
 import io.katharsis.request.path.PathBuilder;
+import io.katharsis.resource.RelationshipInfo;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistrySnapshot;
 import io.katharsis.response.LinkageContainer;
 import io.katharsis.response.RelationshipContainer;
-import io.katharsis.utils.Generics;
-import org.apache.commons.beanutils.BeanUtils;
-import org.apache.commons.beanutils.PropertyUtils;
+import io.katharsis.response.ResourceSerializationContext;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 
 /**
@@ -29,91 +28,96 @@ public class RelationshipContainerSerializer extends JsonSerializer<Relationship
     private static final String LINKAGE_FIELD_NAME = "linkage";
 
     private ResourceRegistry resourceRegistry;
+    private final boolean lazyRelationships;
 
     public RelationshipContainerSerializer(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, false);
+    }
+
+    /**
+     * @param resourceRegistry  initialized registry with all of the required resources
+     * @param lazyRelationships if true, all relationships are serialized as if they were marked as lazy
+     */
+    public RelationshipContainerSerializer(ResourceRegistry resourceRegistry, boolean lazyRelationships) {
         this.resourceRegistry = resourceRegistry;
+        this.lazyRelationships = lazyRelationships;
     }
 
     @Override
     public void serialize(RelationshipContainer relationshipContainer, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        ResourceRegistrySnapshot registrySnapshot = resourceRegistry.getSnapshot();
+        RegistryEntry entry = registrySnapshot.getEntry(relationshipContainer.getDataLinksContainer().getData().getClass());
         gen.writeStartObject();
-        writeLink(relationshipContainer, gen, SELF_FIELD_NAME, true);
-        writeLink(relationshipContainer, gen, RELATED_FIELD_NAME, false);
-        writeLinkage(relationshipContainer, gen);
+        ResourceSerializationContext serializationContext = DataLinksContainerSerializer
+                .getSerializationContext(resourceRegistry, relationshipContainer.getDataLinksContainer(), entry);
+        writeLink(relationshipContainer, serializationContext, gen, SELF_FIELD_NAME, true);
+        writeLink(relationshipContainer, serializationContext, gen, RELATED_FIELD_NAME, false);
+        writeLinkage(relationshipContainer, registrySnapshot, entry, serializationContext, gen);
         gen.writeEndObject();
     }
 
-    private void writeLink(RelationshipContainer relationshipContainer, JsonGenerator gen, String fieldName, boolean addLinks) throws IOException {
-        Class<?> sourceClass = relationshipContainer.getDataLinksContainer().getData().getClass();
-        String resourceUrl = resourceRegistry.getResourceUrl(sourceClass);
-        RegistryEntry entry = resourceRegistry.getEntry(sourceClass);
-        Field idField = entry.getResourceInformation().getIdField();
-
-        String sourceId;
-        try {
-            sourceId = BeanUtils.getProperty(relationshipContainer.getDataLinksContainer().getData(), idField.getName());
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            throw new JsonSerializationException("Exception while writing links", e);
-        }
-        String url = resourceUrl + "/" + sourceId + (addLinks ? "/" + PathBuilder.RELATIONSHIP_MARK + "/" : "/")
+    private void writeLink(RelationshipContainer relationshipContainer, ResourceSerializationContext serializationContext,
+                           JsonGenerator gen, String fieldName, boolean addLinks) throws IOException {
+        String url = serializationContext.getSelfUrl() + (addLinks ? "/" + PathBuilder.RELATIONSHIP_MARK + "/" : "/")
                 + relationshipContainer.getRelationshipField().getName();
         gen.writeStringField(fieldName, url);
     }
 
     /**
-     * Here it is needed to check actual generic type of a class. To achieve that {@code Class::getType} method cannot
-     * be used because of type erasure.
-     *
-     * @param relationshipContainer
-     * @param gen
-     * @throws IOException
+     * Target type of the relationship, including actual generic type of a collection, is taken from precomputed
+     * {@link RelationshipInfo}, the target entry is resolved by the snapshot the resource was found in. The linkage of
+     * a lazy relationship is written only if the relationship is included.
      */
-    private void writeLinkage(RelationshipContainer relationshipContainer, JsonGenerator gen) throws IOException {
-        Class baseClass = relationshipContainer.getRelationshipField().getType();
-        Class relationshipClass = Generics.getResourceClass(relationshipContainer.getRelationshipField(), baseClass);
-        RegistryEntry relationshipEntry = resourceRegistry.getEntry(relationshipClass);
+    private void writeLinkage(RelationshipContainer relationshipContainer, ResourceRegistrySnapshot registrySnapshot,
+                              RegistryEntry entry, ResourceSerializationContext serializationContext, JsonGenerator gen)
+            throws IOException {
+        RelationshipInfo relationshipInfo = entry.getResourceInformation()
+                .getRelationshipInfo(relationshipContainer.getRelationshipField().getName());
+        if ((lazyRelationships || relationshipInfo.isLazy())
+                && !isIncluded(relationshipInfo, serializationContext)) {
+            return;
+        }
 
+        RegistryEntry targetEntry = registrySnapshot.getTargetEntry(relationshipInfo);
         gen.writeFieldName(LINKAGE_FIELD_NAME);
-        writeLinkageField(relationshipContainer, gen, baseClass, relationshipClass, relationshipEntry);
-    }
-
-
-    private void writeLinkageField(RelationshipContainer relationshipContainer, JsonGenerator gen, Class baseClass,
-                                   Class relationshipClass, RegistryEntry relationshipEntry)
-            throws IOException {
         try {
-            if (Iterable.class.isAssignableFrom(baseClass)) {
-                writeToManyLinkage(relationshipContainer, gen, relationshipClass, relationshipEntry);
+            Object targetDataObj = relationshipInfo.getValue(relationshipContainer.getDataLinksContainer().getData());
+            if (relationshipInfo.isToMany()) {
+                writeToManyLinkage(relationshipInfo, targetEntry, targetDataObj, gen);
             } else {
-                writeToOneLinkage(relationshipContainer, gen, relationshipClass, relationshipEntry);
+                writeToOneLinkage(relationshipInfo, targetEntry, targetDataObj, gen);
             }
         } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new JsonSerializationException("Exception while writing id field", e);
         }
     }
 
-    private void writeToManyLinkage(RelationshipContainer relationshipContainer, JsonGenerator gen, Class relationshipClass, RegistryEntry relationshipEntry)
-            throws IOException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        Field relationshipField = relationshipContainer.getRelationshipField();
-        Object targetDataObj = PropertyUtils.getProperty(relationshipContainer.getDataLinksContainer().getData(), relationshipField.getName());
+    /**
+     * A relationship is considered included if it is included by default or if an include path which leads to the
+     * resource continues with the relationship.
+     */
+    private static boolean isIncluded(RelationshipInfo relationshipInfo,
+                                      ResourceSerializationContext serializationContext) {
+        return relationshipInfo.isIncludeByDefault() || serializationContext.isIncluded(relationshipInfo.getJsonName());
+    }
 
+    private void writeToManyLinkage(RelationshipInfo relationshipInfo, RegistryEntry targetEntry, Object targetDataObj,
+                                    JsonGenerator gen) throws IOException {
         gen.writeStartArray();
         if (targetDataObj != null) {
             for (Object objectItem : (Iterable) targetDataObj) {
-                gen.writeObject(new LinkageContainer(objectItem, relationshipClass, relationshipEntry));
+                gen.writeObject(new LinkageContainer(objectItem, relationshipInfo.getTargetClass(), targetEntry));
             }
         }
         gen.writeEndArray();
     }
 
-    private void writeToOneLinkage(RelationshipContainer relationshipContainer, JsonGenerator gen, Class<?> relationshipClass, RegistryEntry relationshipEntry)
-            throws IOException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        Field relationshipField = relationshipContainer.getRelationshipField();
-        Object targetDataObj = PropertyUtils.getProperty(relationshipContainer.getDataLinksContainer().getData(), relationshipField.getName());
+    private void writeToOneLinkage(RelationshipInfo relationshipInfo, RegistryEntry targetEntry, Object targetDataObj,
+                                   JsonGenerator gen) throws IOException {
         if (targetDataObj == null) {
             gen.writeObject(null);
         } else {
-            gen.writeObject(new LinkageContainer(targetDataObj, relationshipClass, relationshipEntry));
+            gen.writeObject(new LinkageContainer(targetDataObj, relationshipInfo.getTargetClass(), targetEntry));
         }
     }
 
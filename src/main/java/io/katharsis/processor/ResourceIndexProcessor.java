@@ -0,0 +1,172 @@
+package io.katharsis.processor;
+
+import io.katharsis.errorhandling.mapper.ExceptionMapperProvider;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.utils.ClassIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An annotation processor which generates the {@link ClassIndex} of resources, repositories and exception mappers, so
+ * they can be found at startup without a classpath scan. Packages of the compiled classes are listed as indexed, other
+ * packages are still scanned. It also verifies at compile time that each resource has
+ * exactly one {@link JsonApiId} field. The processor is not registered as a service, it has to be enabled explicitly, e.g. with
+ * <i>-processor io.katharsis.processor.ResourceIndexProcessor</i> compiler option.
+ * <p>
+ * Index files which already exist in the output directory are merged, so incremental compilation keeps entries of
+ * classes which have not been recompiled.
+ */
+@SupportedAnnotationTypes("*")
+public class ResourceIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, Set<String>> index = new LinkedHashMap<>();
+    private final Set<String> processedClasses = new HashSet<>();
+
+    public ResourceIndexProcessor() {
+        index.put(ClassIndex.RESOURCES, new TreeSet<>());
+        index.put(ClassIndex.RESOURCE_REPOSITORIES, new TreeSet<>());
+        index.put(ClassIndex.RELATIONSHIP_REPOSITORIES, new TreeSet<>());
+        index.put(ClassIndex.EXCEPTION_MAPPERS, new TreeSet<>());
+        index.put(ClassIndex.PACKAGES, new TreeSet<>());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (TypeElement typeElement : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                index.get(ClassIndex.PACKAGES).add(processingEnv.getElementUtils().getPackageOf(typeElement)
+                        .getQualifiedName().toString());
+                processType(typeElement);
+            }
+        }
+        return false;
+    }
+
+    private void processType(TypeElement typeElement) {
+        String className = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        processedClasses.add(className);
+
+        if (typeElement.getAnnotation(JsonApiResource.class) != null) {
+            verifyIdField(typeElement);
+            index.get(ClassIndex.RESOURCES).add(className);
+        }
+        if (isSubtype(typeElement, ResourceRepository.class)) {
+            index.get(ClassIndex.RESOURCE_REPOSITORIES).add(className);
+        }
+        if (isSubtype(typeElement, RelationshipRepository.class)) {
+            index.get(ClassIndex.RELATIONSHIP_REPOSITORIES).add(className);
+        }
+        if (typeElement.getAnnotation(ExceptionMapperProvider.class) != null) {
+            index.get(ClassIndex.EXCEPTION_MAPPERS).add(className);
+        }
+
+        for (TypeElement nestedElement : ElementFilter.typesIn(typeElement.getEnclosedElements())) {
+            processType(nestedElement);
+        }
+    }
+
+    private void verifyIdField(TypeElement typeElement) {
+        int idFields = 0;
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            if (field.getAnnotation(JsonApiId.class) != null) {
+                idFields++;
+            }
+        }
+        if (idFields != 1) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Resource must have exactly one field annotated with @JsonApiId, found: " + idFields, typeElement);
+        }
+    }
+
+    private boolean isSubtype(TypeElement typeElement, Class<?> superType) {
+        TypeElement superTypeElement = processingEnv.getElementUtils().getTypeElement(superType.getCanonicalName());
+        if (superTypeElement == null || superTypeElement.equals(typeElement)) {
+            return false;
+        }
+        TypeMirror erasedType = processingEnv.getTypeUtils().erasure(typeElement.asType());
+        TypeMirror erasedSuperType = processingEnv.getTypeUtils().erasure(superTypeElement.asType());
+        return processingEnv.getTypeUtils().isAssignable(erasedType, erasedSuperType);
+    }
+
+    private void writeIndex() {
+        for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+            Set<String> classNames = entry.getValue();
+            classNames.addAll(readPreviousEntries(entry.getKey()));
+            try {
+                FileObject fileObject = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", entry.getKey());
+                try (Writer writer = new OutputStreamWriter(fileObject.openOutputStream(), StandardCharsets.UTF_8)) {
+                    for (String className : classNames) {
+                        writer.write(className);
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Cannot write " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns entries of an existing index file, which belong to classes not processed in this compilation but still
+     * available.
+     */
+    private Set<String> readPreviousEntries(String location) {
+        Set<String> previousEntries = new TreeSet<>();
+        try {
+            FileObject fileObject = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", location);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(fileObject.openInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !processedClasses.contains(line) && exists(location, line)) {
+                        previousEntries.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // there's no index from a previous compilation
+        }
+        return previousEntries;
+    }
+
+    private boolean exists(String location, String name) {
+        Element element = ClassIndex.PACKAGES.equals(location)
+                ? processingEnv.getElementUtils().getPackageElement(name)
+                : processingEnv.getElementUtils().getTypeElement(name.replace('$', '.'));
+        return element != null;
+    }
+}
@@ -0,0 +1,51 @@
+package io.katharsis.queryParams;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A node of the tree of relationship paths requested by the <i>include</i> parameter
+ * <a href="http://jsonapi.org/format/#fetching-includes">Inclusion of Related Resources</a>. The root node stands for
+ * the primary resources, a child stands for the resources reached through the relationship of its name. E.g.
+ * <i>include=project,assignee.team</i> is parsed into a root with <i>project</i> and <i>assignee</i> children, and the
+ * latter has a <i>team</i> child.
+ */
+public final class IncludePath {
+
+    private final Map<String, IncludePath> children = new LinkedHashMap<>();
+
+    private IncludePath() {
+    }
+
+    /**
+     * @param paths dot-separated paths of relationships
+     * @return root of the tree or <i>null</i> if there are no paths
+     */
+    static IncludePath parse(List<String> paths) {
+        if (paths == null || paths.isEmpty()) {
+            return null;
+        }
+        IncludePath root = new IncludePath();
+        for (String path : paths) {
+            IncludePath node = root;
+            for (String name : path.split("\\.")) {
+                IncludePath child = node.children.get(name);
+                if (child == null) {
+                    child = new IncludePath();
+                    node.children.put(name, child);
+                }
+                node = child;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * @param name name of a relationship in JSON documents
+     * @return node of the resources reached through the relationship or <i>null</i> if they are not included
+     */
+    public IncludePath getChild(String name) {
+        return children.get(name);
+    }
+}
@@ -5,9 +5,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Contains a set of parameters passed along with the request.
@@ -18,7 +22,10 @@ public class RequestParams {
     private List<String> grouping;
     private Map<PaginationKeys, Integer> pagination;
     private List<String> includedFields;
+    private Set<String> includedFieldSet;
+    private Map<String, Set<String>> includedFieldsByType;
     private List<String> includedRelations;
+    private IncludePath includePath;
 
     private ObjectMapper objectMapper;
 
@@ -92,23 +99,94 @@ public class RequestParams {
     }
 
     void setIncludedFields(String includedFields) throws IOException {
-        this.includedFields = Collections.unmodifiableList(
-                objectMapper.readValue(includedFields, INCLUDED_FIELDS_TYPE_REFERENCE)
-        );
+        List<String> fields = (List<String>) objectMapper.readValue(includedFields, INCLUDED_FIELDS_TYPE_REFERENCE);
+        this.includedFields = Collections.unmodifiableList(fields);
+        this.includedFieldSet = Collections.unmodifiableSet(new LinkedHashSet<>(fields));
+    }
+
+    /**
+     * Returns a sparse fieldset of a resource type <a href="http://jsonapi.org/format/#fetching-sparse-fieldsets">Sparse
+     * Fieldsets</a>. Fields passed as <i>fields[type]=a,b</i> apply to the type only, fields passed as a list without a
+     * type apply to all other types.
+     *
+     * @param resourceType type of a resource
+     * @return names of attributes and relationships to be serialized or <i>null</i> if all of them should be serialized
+     */
+    public Set<String> getIncludedFields(String resourceType) {
+        if (includedFieldsByType != null) {
+            Set<String> typeFields = includedFieldsByType.get(resourceType);
+            if (typeFields != null) {
+                return typeFields;
+            }
+        }
+        return includedFieldSet;
+    }
+
+    void setIncludedFields(String resourceType, String includedFields) {
+        if (includedFieldsByType == null) {
+            includedFieldsByType = new HashMap<>();
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : includedFields.split(",")) {
+            if (!field.trim().isEmpty()) {
+                fields.add(field.trim());
+            }
+        }
+        includedFieldsByType.put(resourceType, Collections.unmodifiableSet(fields));
     }
 
     /**
-     * Get a set of included fields which should be included in the resource
+     * Get a list of relationship paths whose resources should be included in the response
+     * <a href="http://jsonapi.org/format/#fetching-includes">Inclusion of Related Resources</a>. Nested relationships
+     * are separated by dots.
      * @return included relationships
      */
     public List getIncludedRelations() {
         return includedRelations;
     }
 
+    /**
+     * @return root of the tree of included relationship paths, parsed once per request, or <i>null</i> if there are no
+     * included relations
+     */
+    public IncludePath getIncludePath() {
+        return includePath;
+    }
+
+    /**
+     * Accepts either a JSON array or comma-separated paths, e.g. <i>project,assignee.team</i>.
+     */
     void setIncludedRelations(String includedRelations) throws IOException {
-        this.includedRelations = Collections.unmodifiableList(
-                objectMapper.readValue(includedRelations, INCLUDED_RELATIONS_TYPE_REFERENCE)
-        );
+        if (includedRelations.trim().startsWith("[")) {
+            this.includedRelations = Collections.unmodifiableList(
+                    objectMapper.readValue(includedRelations, INCLUDED_RELATIONS_TYPE_REFERENCE)
+            );
+        } else {
+            List<String> paths = new ArrayList<>();
+            for (String path : includedRelations.split(",")) {
+                if (!path.trim().isEmpty()) {
+                    paths.add(path.trim());
+                }
+            }
+            this.includedRelations = Collections.unmodifiableList(paths);
+        }
+        this.includePath = IncludePath.parse(this.includedRelations);
     }
 
+    /**
+     * Returns a copy of the parameters without filters, sorting, grouping and pagination. Sparse fieldsets and
+     * included relations are kept. Filtering, sorting and pagination apply to the primary data only, so the copy is
+     * passed to repositories which load related resources.
+     *
+     * @return parameters for loading related resources
+     */
+    public RequestParams withoutPrimaryDataParams() {
+        RequestParams requestParams = new RequestParams(objectMapper);
+        requestParams.includedFields = includedFields;
+        requestParams.includedFieldSet = includedFieldSet;
+        requestParams.includedFieldsByType = includedFieldsByType;
+        requestParams.includedRelations = includedRelations;
+        requestParams.includePath = includePath;
+        return requestParams;
+    }
 }
@@ -55,6 +55,13 @@ public class RequestParamsBuilder {
                 requestParams.setIncludedFields(queryParams.get(fieldsKey));
             }
 
+            for (Map.Entry<String, String> queryParam : queryParams.entrySet()) {
+                String resourceType = getTypedParamType(fieldsKey, queryParam.getKey());
+                if (resourceType != null) {
+                    requestParams.setIncludedFields(resourceType, queryParam.getValue());
+                }
+            }
+
             String includeKey = RestrictedQueryParamsMembers.include.name();
             if (queryParams.containsKey(includeKey)) {
                 requestParams.setIncludedRelations(queryParams.get(includeKey));
@@ -65,4 +72,17 @@ public class RequestParamsBuilder {
 
         return requestParams;
     }
+
+    /**
+     * Returns the type of a parameter in the <i>name[type]</i> form.
+     *
+     * @return the type or <i>null</i> if the key is not a typed parameter of the name
+     */
+    private static String getTypedParamType(String name, String key) {
+        if (key.length() > name.length() + 2 && key.startsWith(name) && key.charAt(name.length()) == '['
+                && key.endsWith("]")) {
+            return key.substring(name.length() + 1, key.length() - 1);
+        }
+        return null;
+    }
 }
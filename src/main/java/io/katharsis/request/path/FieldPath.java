@@ -8,8 +8,8 @@ package io.katharsis.request.path;
  */
 public class FieldPath extends JsonPath {
 
-    public FieldPath(String elementName) {
-        super(elementName);
+    public FieldPath(String elementName, JsonPath parentResource) {
+        super(elementName, null, parentResource);
     }
 
     @Override
@@ -22,11 +22,12 @@ public class FieldPath extends JsonPath {
         return parentResource.elementName;
     }
 
-    public PathIds getIds() {
-        return parentResource.ids;
+    @Override
+    public PathType getPathType() {
+        return PathType.FIELD;
     }
 
-    public void setIds(PathIds ids) {
-        throw new UnsupportedOperationException("Ids can be assigned only to ResourcePath");
+    public PathIds getIds() {
+        return parentResource.ids;
     }
 }
@@ -6,38 +6,39 @@ import java.util.Objects;
  * Represent a JSON API path sent to the server. Each resource or field defined in the path is represented by one
  * derived class of JsonPath object.
  *
- * It is represented in a form of a doubly-linked list which must start with one or more ResourcePath instances and can
- * end with either FieldPath or LinksPath instance.
+ * It is represented in a form of an immutable linked list which must start with one or more ResourcePath instances
+ * and can end with either FieldPath or LinksPath instance. Each element refers to the element closer to path's
+ * beginning, so instances can be safely shared between threads and requests.
  */
 public abstract class JsonPath {
 
     /**
      * Name of a resource or a filed
      */
-    protected String elementName;
+    protected final String elementName;
 
     /**
      * Unique identifier of a field
      */
-    protected PathIds ids;
+    protected final PathIds ids;
 
     /**
      * Entry closer to path's beginning
      */
-    protected JsonPath parentResource;
-
-    /**
-     * Entry closer to path's end
-     */
-    protected JsonPath childResource;
+    protected final JsonPath parentResource;
 
     public JsonPath(String elementName) {
-        this(elementName, null);
+        this(elementName, null, null);
     }
 
     public JsonPath(String elementName, PathIds pathIds) {
+        this(elementName, pathIds, null);
+    }
+
+    public JsonPath(String elementName, PathIds pathIds, JsonPath parentResource) {
         this.elementName = elementName;
         this.ids = pathIds;
+        this.parentResource = parentResource;
     }
 
     /**
@@ -56,6 +57,13 @@ public abstract class JsonPath {
      */
     public abstract String getResourceName();
 
+    /**
+     * Returns kind of the current element which is used to route the request.
+     *
+     * @return type of the path element
+     */
+    public abstract PathType getPathType();
+
     /**
      * Returns name of the current element. It can be either resource type or resource's field.
      *
@@ -69,26 +77,10 @@ public abstract class JsonPath {
         return ids;
     }
 
-    public void setIds(PathIds ids) {
-        this.ids = ids;
-    }
-
     public JsonPath getParentResource() {
         return parentResource;
     }
 
-    public void setParentResource(JsonPath parentResource) {
-        this.parentResource = parentResource;
-    }
-
-    public JsonPath getChildResource() {
-        return childResource;
-    }
-
-    public void setChildResource(JsonPath childResource) {
-        this.childResource = childResource;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -5,9 +5,11 @@ import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistrySnapshot;
 
-import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Builder responsible for parsing URL path.
@@ -16,7 +18,19 @@ public class PathBuilder {
     public static final String SEPARATOR = "/";
     public static final String RELATIONSHIP_MARK = "relationships";
 
-    private ResourceRegistry resourceRegistry;
+    private static final char SEPARATOR_CHAR = '/';
+    private static final char ID_SEPARATOR_CHAR = ',';
+    private static final int INITIAL_SEGMENTS_CAPACITY = 8;
+    private static final char ID_PLACEHOLDER = '\u0000';
+    private static final int MAX_CACHED_SHAPES = 1024;
+
+    private final ResourceRegistry resourceRegistry;
+
+    /**
+     * Shapes of already parsed paths, validated against a single registry snapshot. The cache is dropped as soon as
+     * the registry publishes a new snapshot.
+     */
+    private volatile ShapeCache shapeCache;
 
     public PathBuilder(ResourceRegistry resourceRegistry) {
         this.resourceRegistry = resourceRegistry;
@@ -24,96 +38,236 @@ public class PathBuilder {
 
     /**
      * Parses path provided by the application. The path provided cannot contain neither hostname nor protocol. It
-     * can start or end with slash e.g. <i>/tasks/1/</i> or <i>tasks/1</i>.
+     * can start or end with slash e.g. <i>/tasks/1/</i> or <i>tasks/1</i>. Path elements and ids are percent-decoded.
      *
      * @param path Path to be parsed
-     * @return doubly-linked list which represents path given at the input
+     * @return immutable linked list which represents path given at the input
      */
     public JsonPath buildPath(String path) {
-        String[] strings = splitPath(path);
-        if (strings.length == 0 || (strings.length == 1 && "".equals(strings[0]))) {
+        int[] segments = findSegments(path);
+        int segmentCount = segments[0];
+        if (segmentCount == 0) {
             throw new ResourceException("Path is empty");
         }
 
-        JsonPath previousJsonPath = null, currentJsonPath = null;
-        PathIds pathIds;
-        boolean relationshipMark;
-        String elementName;
+        StringBuilder shapeKey = new StringBuilder(path.length());
+        PathIds[] pathIds = null;
+        int elementCount = 0;
+        for (int currentElementIdx = 0; currentElementIdx < segmentCount; elementCount++) {
+            if (isRelationshipMark(path, segments, currentElementIdx)) {
+                shapeKey.append(RELATIONSHIP_MARK);
+                currentElementIdx++;
+            }
+            shapeKey.append(SEPARATOR_CHAR);
+
+            if (currentElementIdx < segmentCount && !isRelationshipMark(path, segments, currentElementIdx)) {
+                shapeKey.append(path, segmentStart(segments, currentElementIdx), segmentEnd(segments, currentElementIdx));
+                currentElementIdx++;
+            }
+            shapeKey.append(SEPARATOR_CHAR);
+
+            if (currentElementIdx < segmentCount && !isRelationshipMark(path, segments, currentElementIdx)) {
+                if (pathIds == null) {
+                    pathIds = new PathIds[segmentCount];
+                }
+                pathIds[elementCount] = createPathIds(path, segmentStart(segments, currentElementIdx),
+                        segmentEnd(segments, currentElementIdx));
+                shapeKey.append(ID_PLACEHOLDER);
+                currentElementIdx++;
+            }
+            shapeKey.append(SEPARATOR_CHAR);
+        }
+
+        ShapeCache cache = getShapeCache();
+        String key = shapeKey.toString();
+        PathShape pathShape = cache.pathShapes.get(key);
+        if (pathShape == null) {
+            pathShape = buildPathShape(cache.registrySnapshot, path, segments, elementCount);
+            if (cache.pathShapes.size() < MAX_CACHED_SHAPES) {
+                cache.pathShapes.put(key, pathShape);
+            }
+        }
+        return pathShape.build(pathIds);
+    }
 
-        for (int currentElementIdx = 0; currentElementIdx < strings.length; ) {
+    private ShapeCache getShapeCache() {
+        ResourceRegistrySnapshot registrySnapshot = resourceRegistry.getSnapshot();
+        ShapeCache cache = shapeCache;
+        if (cache == null || cache.registrySnapshot != registrySnapshot) {
+            cache = new ShapeCache(registrySnapshot);
+            shapeCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Validates elements of the path against the registry. Elements are split in the same way as in
+     * {@link #buildPath(String)}.
+     */
+    private static PathShape buildPathShape(ResourceRegistrySnapshot registrySnapshot, String path, int[] segments,
+                                            int elementCount) {
+        int segmentCount = segments[0];
+        PathType[] pathTypes = new PathType[elementCount];
+        String[] elementNames = new String[elementCount];
+        boolean hasIds = false;
+
+        String elementName;
+        boolean relationshipMark;
+        boolean elementIds;
+        for (int currentElementIdx = 0, elementIdx = 0; currentElementIdx < segmentCount; elementIdx++) {
             elementName = null;
-            pathIds = null;
             relationshipMark = false;
+            elementIds = false;
 
-            if (RELATIONSHIP_MARK.equals(strings[currentElementIdx])) {
+            if (isRelationshipMark(path, segments, currentElementIdx)) {
                 relationshipMark = true;
                 currentElementIdx++;
             }
 
-            if (currentElementIdx < strings.length && !RELATIONSHIP_MARK.equals(strings[currentElementIdx])) {
-                elementName = strings[currentElementIdx];
+            if (currentElementIdx < segmentCount && !isRelationshipMark(path, segments, currentElementIdx)) {
+                elementName = decode(path, segmentStart(segments, currentElementIdx), segmentEnd(segments, currentElementIdx));
                 currentElementIdx++;
             }
 
-            if (currentElementIdx < strings.length && !RELATIONSHIP_MARK.equals(strings[currentElementIdx])) {
-                pathIds = createPathIds(strings[currentElementIdx]);
+            if (currentElementIdx < segmentCount && !isRelationshipMark(path, segments, currentElementIdx)) {
+                elementIds = true;
                 currentElementIdx++;
             }
-            RegistryEntry entry = resourceRegistry.getEntry(elementName);
+            RegistryEntry entry = registrySnapshot.getEntry(elementName);
             if (entry != null && !relationshipMark) {
-                currentJsonPath = new ResourcePath(elementName);
-            } else if (previousJsonPath != null) {
-                currentJsonPath = getNonResourcePath(previousJsonPath, elementName, relationshipMark);
-                if (pathIds != null) {
+                pathTypes[elementIdx] = PathType.RESOURCE;
+            } else if (elementIdx > 0) {
+                pathTypes[elementIdx] = getNonResourcePathType(registrySnapshot, elementNames[elementIdx - 1], elementName,
+                        relationshipMark);
+                if (elementIds) {
                     throw new ResourceException("RelationshipsPath and FieldPath cannot contain ids");
                 }
             } else {
                 throw new ResourceNotFoundException(null, path);
             }
-
-            if (pathIds != null) {
-                currentJsonPath.setIds(pathIds);
-            }
-            if (previousJsonPath != null) {
-                previousJsonPath.setChildResource(currentJsonPath);
-                currentJsonPath.setParentResource(previousJsonPath);
-            }
-            previousJsonPath = currentJsonPath;
+            elementNames[elementIdx] = elementName;
+            hasIds |= elementIds;
         }
 
-        return currentJsonPath;
+        return new PathShape(pathTypes, elementNames, hasIds);
     }
 
-    private JsonPath getNonResourcePath(JsonPath previousJsonPath, String elementName, boolean relationshipMark) {
-        String previousElementName = previousJsonPath.getElementName();
-        RegistryEntry previousEntry = resourceRegistry.getEntry(previousElementName);
-        Set<Field> resourceFields = previousEntry.getResourceInformation().getRelationshipFields();
-        for (Field field : resourceFields) {
-            if (field.getName().equals(elementName)) {
-                if (relationshipMark) {
-                    return new RelationshipsPath(elementName);
-                } else {
-                    return new FieldPath(elementName);
-                }
-            }
+    private static PathType getNonResourcePathType(ResourceRegistrySnapshot registrySnapshot, String previousElementName,
+                                                   String elementName, boolean relationshipMark) {
+        RegistryEntry previousEntry = registrySnapshot.getEntry(previousElementName);
+        if (previousEntry.getResourceInformation().getRelationshipInfo(elementName) != null) {
+            return relationshipMark ? PathType.RELATIONSHIPS : PathType.FIELD;
         }
         //TODO: Throw different exception? element name can be null..
         throw new ResourceFieldNotFoundException(elementName);
     }
 
-    private PathIds createPathIds(String idsString) {
-        List<String> pathIds = Arrays.asList(idsString.split(PathIds.ID_SEPERATOR));
+    /**
+     * Splits comma separated ids of a single path segment. Each id is percent-decoded after splitting, so an encoded
+     * comma is a part of an id. Empty ids left by leading, trailing or repeated commas are skipped.
+     */
+    private PathIds createPathIds(String path, int start, int end) {
+        int separatorIdx = path.indexOf(ID_SEPARATOR_CHAR, start);
+        if (separatorIdx < 0 || separatorIdx >= end) {
+            return new PathIds(decode(path, start, end));
+        }
+        List<String> pathIds = new ArrayList<>();
+        int idStart = start;
+        while (separatorIdx >= 0 && separatorIdx < end) {
+            if (idStart < separatorIdx) {
+                pathIds.add(decode(path, idStart, separatorIdx));
+            }
+            idStart = separatorIdx + 1;
+            separatorIdx = path.indexOf(ID_SEPARATOR_CHAR, idStart);
+        }
+        if (idStart < end) {
+            pathIds.add(decode(path, idStart, end));
+        }
+        if (pathIds.isEmpty()) {
+            throw new ResourceException("Path contains no ids: " + path);
+        }
         return new PathIds(pathIds);
     }
 
-    private String[] splitPath(String path) {
-        if (path.startsWith(SEPARATOR)) {
-            path = path.substring(1);
+    /**
+     * Finds bounds of non-empty path segments in a single pass without copying the path. The first element of
+     * returned array contains the number of segments, followed by start (inclusive) and end (exclusive) index of each
+     * segment. Leading, trailing and repeated separators are skipped.
+     */
+    private static int[] findSegments(String path) {
+        int[] segments = new int[1 + 2 * INITIAL_SEGMENTS_CAPACITY];
+        int segmentCount = 0;
+        int segmentStart = -1;
+        int length = path.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == SEPARATOR_CHAR) {
+                if (segmentStart >= 0) {
+                    if (1 + 2 * (segmentCount + 1) > segments.length) {
+                        segments = Arrays.copyOf(segments, segments.length * 2);
+                    }
+                    segments[1 + 2 * segmentCount] = segmentStart;
+                    segments[2 + 2 * segmentCount] = i;
+                    segmentCount++;
+                    segmentStart = -1;
+                }
+            } else if (segmentStart < 0) {
+                segmentStart = i;
+            }
         }
-        if (path.endsWith(SEPARATOR)) {
-            path = path.substring(0, path.length());
+        segments[0] = segmentCount;
+        return segments;
+    }
+
+    private static int segmentStart(int[] segments, int segmentIdx) {
+        return segments[1 + 2 * segmentIdx];
+    }
+
+    private static int segmentEnd(int[] segments, int segmentIdx) {
+        return segments[2 + 2 * segmentIdx];
+    }
+
+    private static boolean isRelationshipMark(String path, int[] segments, int segmentIdx) {
+        int start = segmentStart(segments, segmentIdx);
+        return segmentEnd(segments, segmentIdx) - start == RELATIONSHIP_MARK.length()
+                && path.regionMatches(start, RELATIONSHIP_MARK, 0, RELATIONSHIP_MARK.length());
+    }
+
+    /**
+     * Percent-decodes a part of the path. If the part contains no escaped characters, no decoding buffers are
+     * allocated. Unlike {@link java.net.URLDecoder}, a plus sign is not converted into a space.
+     */
+    private static String decode(String path, int start, int end) {
+        int percentIdx = path.indexOf('%', start);
+        if (percentIdx < 0 || percentIdx >= end) {
+            return path.substring(start, end);
         }
-        return path.split(SEPARATOR);
+
+        StringBuilder decoded = new StringBuilder(end - start);
+        decoded.append(path, start, percentIdx);
+        byte[] bytes = new byte[(end - percentIdx) / 3];
+        int i = percentIdx;
+        while (i < end) {
+            if (path.charAt(i) != '%') {
+                decoded.append(path.charAt(i));
+                i++;
+                continue;
+            }
+            int byteCount = 0;
+            while (i < end && path.charAt(i) == '%') {
+                if (i + 2 >= end) {
+                    throw new ResourceException("Invalid percent-encoding in path: " + path);
+                }
+                int high = Character.digit(path.charAt(i + 1), 16);
+                int low = Character.digit(path.charAt(i + 2), 16);
+                if (high < 0 || low < 0) {
+                    throw new ResourceException("Invalid percent-encoding in path: " + path);
+                }
+                bytes[byteCount++] = (byte) ((high << 4) + low);
+                i += 3;
+            }
+            decoded.append(new String(bytes, 0, byteCount, StandardCharsets.UTF_8));
+        }
+        return decoded.toString();
     }
 
     /**
@@ -154,4 +308,54 @@ public class PathBuilder {
     private String mergeIds(PathIds ids) {
         return String.join(PathIds.ID_SEPERATOR, ids.getIds());
     }
+
+    /**
+     * Shapes of paths keyed by a path with its id segments replaced by a placeholder, so paths which differ only by
+     * ids share the same validated shape.
+     */
+    private static final class ShapeCache {
+        private final ResourceRegistrySnapshot registrySnapshot;
+        private final Map<String, PathShape> pathShapes = new ConcurrentHashMap<>();
+
+        private ShapeCache(ResourceRegistrySnapshot registrySnapshot) {
+            this.registrySnapshot = registrySnapshot;
+        }
+    }
+
+    /**
+     * Validated structure of a path without ids. Paths without ids are built once and shared.
+     */
+    private static final class PathShape {
+        private final PathType[] pathTypes;
+        private final String[] elementNames;
+        private final JsonPath sharedPath;
+
+        private PathShape(PathType[] pathTypes, String[] elementNames, boolean hasIds) {
+            this.pathTypes = pathTypes;
+            this.elementNames = elementNames;
+            this.sharedPath = hasIds ? null : build(pathTypes, elementNames, null);
+        }
+
+        private JsonPath build(PathIds[] pathIds) {
+            return sharedPath != null ? sharedPath : build(pathTypes, elementNames, pathIds);
+        }
+
+        private static JsonPath build(PathType[] pathTypes, String[] elementNames, PathIds[] pathIds) {
+            JsonPath currentJsonPath = null;
+            for (int elementIdx = 0; elementIdx < pathTypes.length; elementIdx++) {
+                switch (pathTypes[elementIdx]) {
+                    case RESOURCE:
+                        PathIds ids = pathIds != null ? pathIds[elementIdx] : null;
+                        currentJsonPath = new ResourcePath(elementNames[elementIdx], ids, currentJsonPath);
+                        break;
+                    case FIELD:
+                        currentJsonPath = new FieldPath(elementNames[elementIdx], currentJsonPath);
+                        break;
+                    default:
+                        currentJsonPath = new RelationshipsPath(elementNames[elementIdx], currentJsonPath);
+                }
+            }
+            return currentJsonPath;
+        }
+    }
 }
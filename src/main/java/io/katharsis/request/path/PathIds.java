@@ -1,23 +1,24 @@
 package io.katharsis.request.path;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Represent an id or ids passed in the path from a client.
+ * Represent an id or ids passed in the path from a client. Instances are immutable.
  */
 public class PathIds {
     public static final String ID_SEPERATOR = ",";
 
-    private List<String> ids = new LinkedList<>();
+    private final List<String> ids;
 
     public PathIds(String id) {
-        ids.add(id);
+        ids = Collections.singletonList(id);
     }
 
     public PathIds(Collection<String> id) {
-        ids.addAll(id);
+        ids = Collections.unmodifiableList(new ArrayList<>(id));
     }
 
     public List<String> getIds() {
@@ -0,0 +1,19 @@
+package io.katharsis.request.path;
+
+/**
+ * Kind of the last element of a {@link JsonPath}. Used to route a request without inspecting the path's class.
+ */
+public enum PathType {
+    /**
+     * Path ends with a resource e.g. <i>/tasks/1</i>
+     */
+    RESOURCE,
+    /**
+     * Path ends with a resource's field e.g. <i>/tasks/1/project</i>
+     */
+    FIELD,
+    /**
+     * Path ends with a resource's relationship e.g. <i>/tasks/1/relationships/project</i>
+     */
+    RELATIONSHIPS
+}
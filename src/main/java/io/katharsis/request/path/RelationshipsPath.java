@@ -8,7 +8,12 @@ package io.katharsis.request.path;
  */
 public class RelationshipsPath extends FieldPath {
 
-    public RelationshipsPath(String elementName) {
-        super(elementName);
+    public RelationshipsPath(String elementName, JsonPath parentResource) {
+        super(elementName, parentResource);
+    }
+
+    @Override
+    public PathType getPathType() {
+        return PathType.RELATIONSHIPS;
     }
 }
@@ -14,6 +14,10 @@ public class ResourcePath extends JsonPath {
         super(elementName, pathIds);
     }
 
+    public ResourcePath(String elementName, PathIds pathIds, JsonPath parentResource) {
+        super(elementName, pathIds, parentResource);
+    }
+
     @Override
     public boolean isCollection() {
         return ids == null || ids.getIds().size() > 1;
@@ -23,4 +27,9 @@ public class ResourcePath extends JsonPath {
     public String getResourceName() {
         return elementName;
     }
+
+    @Override
+    public PathType getPathType() {
+        return PathType.RESOURCE;
+    }
 }
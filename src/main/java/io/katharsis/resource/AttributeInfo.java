@@ -0,0 +1,58 @@
+package io.katharsis.resource;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.katharsis.utils.PropertyAccessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * Holds precomputed information about an attribute field of a resource. It is computed when
+ * {@link ResourceInformation} is created.
+ */
+public final class AttributeInfo {
+
+    private static final ResourceFieldNameTransformer RESOURCE_FIELD_NAME_TRANSFORMER = new ResourceFieldNameTransformer();
+
+    private final Field field;
+    private final String jsonName;
+    private final SerializedString serializedJsonName;
+    private final PropertyAccessor accessor;
+
+    public AttributeInfo(Field field, PropertyAccessor accessor) {
+        this.field = field;
+        this.jsonName = RESOURCE_FIELD_NAME_TRANSFORMER.getName(field);
+        this.serializedJsonName = new SerializedString(jsonName);
+        this.accessor = accessor;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return name of the field in Java class
+     */
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * @return name of the attribute in JSON documents
+     */
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * @return name of the attribute in JSON documents which caches its encoded forms, so it can be written by a
+     * {@link com.fasterxml.jackson.core.JsonGenerator} without escaping it each time
+     */
+    public SerializableString getSerializedJsonName() {
+        return serializedJsonName;
+    }
+
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+}
@@ -0,0 +1,106 @@
+package io.katharsis.resource;
+
+import io.katharsis.resource.annotations.JsonApiIncludeByDefault;
+import io.katharsis.resource.annotations.JsonApiToMany;
+import io.katharsis.resource.annotations.JsonApiToOne;
+import io.katharsis.utils.Generics;
+import io.katharsis.utils.PropertyAccessor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Holds precomputed information about a relationship field of a resource. Information extracted from the field is
+ * computed when {@link ResourceInformation} is created. The entry of the target resource depends on the state of the
+ * registry, so it is resolved by {@link io.katharsis.resource.registry.ResourceRegistrySnapshot#getTargetEntry}.
+ */
+public final class RelationshipInfo {
+
+    private static final ResourceFieldNameTransformer RESOURCE_FIELD_NAME_TRANSFORMER = new ResourceFieldNameTransformer();
+
+    private final Field field;
+    private final String jsonName;
+    private final boolean toMany;
+    private final Class<?> targetClass;
+    private final boolean includeByDefault;
+    private final boolean lazy;
+    private final PropertyAccessor accessor;
+
+    public RelationshipInfo(Field field, PropertyAccessor accessor) {
+        this.field = field;
+        this.jsonName = RESOURCE_FIELD_NAME_TRANSFORMER.getName(field);
+        this.toMany = Iterable.class.isAssignableFrom(field.getType());
+        this.targetClass = Generics.getResourceClass(field, field.getType());
+        this.includeByDefault = field.isAnnotationPresent(JsonApiIncludeByDefault.class);
+        this.lazy = isLazy(field);
+        this.accessor = accessor;
+    }
+
+    private static boolean isLazy(Field field) {
+        JsonApiToOne toOne = field.getAnnotation(JsonApiToOne.class);
+        JsonApiToMany toMany = field.getAnnotation(JsonApiToMany.class);
+        return (toOne != null && toOne.lazy()) || (toMany != null && toMany.lazy());
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return name of the field which is used in paths and passed to relationship repositories
+     */
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * @return name of the relationship in JSON documents
+     */
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * @return true if the relationship is a to-many relationship
+     */
+    public boolean isToMany() {
+        return toMany;
+    }
+
+    /**
+     * @return class of the target resource, for to-many relationships it is the generic type of the collection
+     */
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    public boolean isIncludeByDefault() {
+        return includeByDefault;
+    }
+
+    /**
+     * @return true if the linkage of the relationship should be written only if the relationship is included
+     * @see JsonApiToOne#lazy()
+     * @see JsonApiToMany#lazy()
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * Reads the value of the relationship from a resource.
+     *
+     * @param resource resource instance
+     * @return value of the relationship
+     * @throws IllegalAccessException    never, declared by {@link PropertyAccessor#getValue(Object)}
+     * @throws InvocationTargetException if the getter throws an exception
+     * @throws NoSuchMethodException     if there is no getter for the field
+     */
+    public Object getValue(Object resource) throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        return accessor.getValue(resource);
+    }
+}
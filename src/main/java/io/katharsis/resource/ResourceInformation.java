@@ -1,6 +1,13 @@
 package io.katharsis.resource;
 
+import io.katharsis.utils.PropertyAccessor;
+
 import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -9,8 +16,6 @@ import java.util.Set;
  */
 public final class ResourceInformation {
 
-    private static final ResourceFieldNameTransformer RESOURCE_FIELD_NAME_TRANSFORMER = new ResourceFieldNameTransformer();
-
     private final Class<?> resourceClass;
 
     /**
@@ -28,11 +33,89 @@ public final class ResourceInformation {
      */
     private final Set<Field> relationshipFields;
 
+    /**
+     * Information about relationship fields indexed by field name.
+     */
+    private final Map<String, RelationshipInfo> relationships;
+
+    /**
+     * Information about attribute fields indexed by JSON name, in the order of {@link #attributeFields}.
+     */
+    private final Map<String, AttributeInfo> attributesByJsonName;
+
+    /**
+     * Information about relationship fields indexed by JSON name.
+     */
+    private final Map<String, RelationshipInfo> relationshipsByJsonName;
+
+    /**
+     * Accessors of the id, attribute and relationship fields indexed by field name.
+     */
+    private final Map<String, PropertyAccessor> accessors;
+
     public ResourceInformation(Class<?> resourceClass, Field idField, Set<Field> attributeFields, Set<Field> relationshipFields) {
         this.resourceClass = resourceClass;
         this.idField = idField;
         this.attributeFields = attributeFields;
         this.relationshipFields = relationshipFields;
+        Map<String, PropertyAccessor> classAccessors = PropertyAccessor.forClass(resourceClass);
+        this.relationships = buildRelationships(relationshipFields, classAccessors);
+        this.attributesByJsonName = buildAttributes(attributeFields, classAccessors);
+        this.relationshipsByJsonName = buildRelationshipsByJsonName(relationships);
+        this.accessors = buildAccessors(classAccessors);
+    }
+
+    private static Map<String, AttributeInfo> buildAttributes(Set<Field> attributeFields,
+                                                              Map<String, PropertyAccessor> classAccessors) {
+        if (attributeFields == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, AttributeInfo> attributes = new LinkedHashMap<>();
+        for (Field attributeField : attributeFields) {
+            AttributeInfo attributeInfo = new AttributeInfo(attributeField, getAccessor(classAccessors, attributeField.getName()));
+            attributes.putIfAbsent(attributeInfo.getJsonName(), attributeInfo);
+        }
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    private static Map<String, RelationshipInfo> buildRelationshipsByJsonName(Map<String, RelationshipInfo> relationships) {
+        Map<String, RelationshipInfo> relationshipsByJsonName = new HashMap<>();
+        for (RelationshipInfo relationshipInfo : relationships.values()) {
+            relationshipsByJsonName.putIfAbsent(relationshipInfo.getJsonName(), relationshipInfo);
+        }
+        return Collections.unmodifiableMap(relationshipsByJsonName);
+    }
+
+    private static Map<String, RelationshipInfo> buildRelationships(Set<Field> relationshipFields,
+                                                                    Map<String, PropertyAccessor> classAccessors) {
+        if (relationshipFields == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, RelationshipInfo> relationships = new HashMap<>();
+        for (Field relationshipField : relationshipFields) {
+            String name = relationshipField.getName();
+            relationships.put(name, new RelationshipInfo(relationshipField, getAccessor(classAccessors, name)));
+        }
+        return Collections.unmodifiableMap(relationships);
+    }
+
+    private Map<String, PropertyAccessor> buildAccessors(Map<String, PropertyAccessor> classAccessors) {
+        Map<String, PropertyAccessor> fieldAccessors = new HashMap<>();
+        if (idField != null) {
+            fieldAccessors.put(idField.getName(), getAccessor(classAccessors, idField.getName()));
+        }
+        for (AttributeInfo attributeInfo : attributesByJsonName.values()) {
+            fieldAccessors.put(attributeInfo.getName(), attributeInfo.getAccessor());
+        }
+        for (RelationshipInfo relationshipInfo : relationships.values()) {
+            fieldAccessors.put(relationshipInfo.getName(), relationshipInfo.getAccessor());
+        }
+        return Collections.unmodifiableMap(fieldAccessors);
+    }
+
+    private static PropertyAccessor getAccessor(Map<String, PropertyAccessor> classAccessors, String name) {
+        PropertyAccessor accessor = classAccessors.get(name);
+        return accessor != null ? accessor : PropertyAccessor.missing(name);
     }
 
     public Class<?> getResourceClass() {
@@ -44,6 +127,23 @@ public final class ResourceInformation {
     }
 
 
+    /**
+     * @return accessor of the id field
+     */
+    public PropertyAccessor getIdAccessor() {
+        return idField != null ? accessors.get(idField.getName()) : null;
+    }
+
+    /**
+     * Returns an accessor of an id, attribute or relationship field.
+     *
+     * @param fieldName name of a field
+     * @return accessor or <i>null</i> if the resource has no such field
+     */
+    public PropertyAccessor getAccessor(String fieldName) {
+        return accessors.get(fieldName);
+    }
+
     public Set<Field> getAttributeFields() {
         return attributeFields;
     }
@@ -52,25 +152,55 @@ public final class ResourceInformation {
         return relationshipFields;
     }
 
+    /**
+     * Returns information about a relationship identified by a field name, as used in paths.
+     *
+     * @param fieldName name of a relationship field
+     * @return relationship information or <i>null</i> if there's no such relationship
+     */
+    public RelationshipInfo getRelationshipInfo(String fieldName) {
+        return relationships.get(fieldName);
+    }
+
+    public Collection<RelationshipInfo> getRelationshipInfos() {
+        return relationships.values();
+    }
+
+    /**
+     * @return information about attribute fields in the order of {@link #getAttributeFields()}
+     */
+    public Collection<AttributeInfo> getAttributeInfos() {
+        return attributesByJsonName.values();
+    }
+
+    /**
+     * Returns information about an attribute identified by a name used in JSON documents.
+     *
+     * @param name JSON name of an attribute
+     * @return attribute information or <i>null</i> if there's no such attribute
+     */
+    public AttributeInfo findAttributeInfoByName(String name) {
+        return attributesByJsonName.get(name);
+    }
+
+    /**
+     * Returns information about a relationship identified by a name used in JSON documents.
+     *
+     * @param name JSON name of a relationship
+     * @return relationship information or <i>null</i> if there's no such relationship
+     */
+    public RelationshipInfo findRelationshipInfoByName(String name) {
+        return relationshipsByJsonName.get(name);
+    }
+
     public Field findAttributeFieldByName(String name) {
-        return getField(name, attributeFields);
+        AttributeInfo attributeInfo = attributesByJsonName.get(name);
+        return attributeInfo != null ? attributeInfo.getField() : null;
     }
 
     public Field findRelationshipFieldByName(String name) {
-        return getField(name, relationshipFields);
-    }
-
-    private Field getField(String name, Set<Field> fields) {
-        Field foundField = null;
-        String fieldName;
-        for (Field field : fields) {
-            fieldName = RESOURCE_FIELD_NAME_TRANSFORMER.getName(field);
-            if (fieldName.equals(name)) {
-                foundField = field;
-                break;
-            }
-        }
-        return foundField;
+        RelationshipInfo relationshipInfo = relationshipsByJsonName.get(name);
+        return relationshipInfo != null ? relationshipInfo.getField() : null;
     }
 
     @Override
@@ -9,4 +9,12 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
 public @interface JsonApiToMany {
+
+    /**
+     * Lazy relationships are serialized with <i>self</i> and <i>related</i> links only. Their linkage is written only
+     * if the relationship is included in the response, so the getter of the field is not invoked otherwise.
+     *
+     * @return true if the linkage should be written only for included relationships
+     */
+    boolean lazy() default false;
 }
@@ -5,8 +5,11 @@ import io.katharsis.repository.ResourceRepository;
 import io.katharsis.resource.ResourceInformation;
 import net.jodah.typetools.TypeResolver;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -15,13 +18,21 @@ import java.util.Objects;
  * - ResourceInformation instance with information about the resource,
  * - ResourceRepository instance,
  * - List of all repositories for relationships defined in resource class.
+ * <p>
+ * Repositories are kept in {@link RepositoryHandle}s, so an entry created by {@link ResourceRegistryBuilder} can
+ * obtain them from the locator on first use instead of when the registry is built.
  *
  * @param <T> resource type
  */
 public class RegistryEntry<T> {
     private ResourceInformation resourceInformation;
-    private ResourceRepository<T, ?> resourceRepository;
-    private List<RelationshipRepository<T, ?, ?, ?>> relationshipRepositories;
+    private RepositoryHandle<ResourceRepository<T, ?>> resourceRepository;
+    private List<RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> relationshipRepositories;
+
+    /**
+     * Relationship repositories indexed by their target class, resolved once when the entry is created.
+     */
+    private final Map<Class<?>, RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> relationshipRepositoriesByTarget;
 
     public RegistryEntry(ResourceInformation resourceInformation, ResourceRepository<T, ?> resourceRepository) {
         this(resourceInformation, resourceRepository, new LinkedList<>());
@@ -29,31 +40,109 @@ public class RegistryEntry<T> {
 
     public RegistryEntry(ResourceInformation resourceInformation, ResourceRepository<T, ?> resourceRepository,
                          List<RelationshipRepository<T, ?, ?, ?>> relationshipRepositories) {
+        this(resourceInformation, RepositoryHandle.of(resourceRepository), toHandles(relationshipRepositories));
+    }
+
+    private RegistryEntry(ResourceInformation resourceInformation,
+                          RepositoryHandle<ResourceRepository<T, ?>> resourceRepository,
+                          List<RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> relationshipRepositories) {
         this.resourceInformation = resourceInformation;
         this.resourceRepository = resourceRepository;
         this.relationshipRepositories = relationshipRepositories;
+        this.relationshipRepositoriesByTarget = indexRelationshipRepositories(relationshipRepositories);
+    }
+
+    /**
+     * Creates an entry whose repositories can be resolved lazily.
+     *
+     * @param resourceInformation      information about the resource
+     * @param resourceRepository       handle of the resource repository
+     * @param relationshipRepositories handles of the relationship repositories
+     * @param <T>                      resource type
+     * @return created entry
+     */
+    public static <T> RegistryEntry<T> create(ResourceInformation resourceInformation,
+                                              RepositoryHandle<ResourceRepository<T, ?>> resourceRepository,
+                                              List<RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> relationshipRepositories) {
+        return new RegistryEntry<>(resourceInformation, resourceRepository, relationshipRepositories);
+    }
+
+    private static <R> List<RepositoryHandle<R>> toHandles(List<R> repositories) {
+        List<RepositoryHandle<R>> handles = new ArrayList<>();
+        if (repositories != null) {
+            for (R repository : repositories) {
+                handles.add(RepositoryHandle.of(repository));
+            }
+        }
+        return handles;
+    }
+
+    private static <T> Map<Class<?>, RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> indexRelationshipRepositories(
+            List<RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> relationshipRepositories) {
+        Map<Class<?>, RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> repositoriesByTarget = new IdentityHashMap<>();
+        for (RepositoryHandle<RelationshipRepository<T, ?, ?, ?>> relationshipRepository : relationshipRepositories) {
+            if (relationshipRepository.getRepositoryClass() != null) {
+                Class<?>[] typeArgs = TypeResolver
+                        .resolveRawArguments(RelationshipRepository.class, relationshipRepository.getRepositoryClass().asSubclass(RelationshipRepository.class));
+                repositoriesByTarget.putIfAbsent(typeArgs[RelationshipRepository.TARGET_TYPE_GENERIC_PARAMETER_IDX],
+                        relationshipRepository);
+            }
+        }
+        return repositoriesByTarget;
     }
 
     public ResourceRepository<T, ?> getResourceRepository() {
-        return resourceRepository;
+        return resourceRepository.get();
     }
 
     public List<RelationshipRepository<T, ?, ?, ?>> getRelationshipRepositories() {
-        return relationshipRepositories;
+        List<RelationshipRepository<T, ?, ?, ?>> repositories = new ArrayList<>(relationshipRepositories.size());
+        for (RepositoryHandle<RelationshipRepository<T, ?, ?, ?>> relationshipRepository : relationshipRepositories) {
+            repositories.add(relationshipRepository.get());
+        }
+        return repositories;
     }
 
-    public RelationshipRepository<T, ?, ?, ?> getRelationshipRepositoryForClass(Class clazz) {
-        RelationshipRepository<T, ?, ?, ?> foundRelationshipRepository = null;
-        for (RelationshipRepository<T, ?, ?, ?> relationshipRepository : relationshipRepositories) {
-            Class<?>[] typeArgs = TypeResolver
-                    .resolveRawArguments(RelationshipRepository.class, relationshipRepository.getClass());
+    /**
+     * @return class of the resource repository, available without obtaining the repository
+     */
+    public Class<?> getResourceRepositoryClass() {
+        return resourceRepository.getRepositoryClass();
+    }
 
-            if (clazz == typeArgs[RelationshipRepository.TARGET_TYPE_GENERIC_PARAMETER_IDX]) {
-                foundRelationshipRepository = relationshipRepository;
-            }
+    /**
+     * @return classes of the relationship repositories, available without obtaining the repositories
+     */
+    public List<Class<?>> getRelationshipRepositoryClasses() {
+        List<Class<?>> repositoryClasses = new ArrayList<>(relationshipRepositories.size());
+        for (RepositoryHandle<RelationshipRepository<T, ?, ?, ?>> relationshipRepository : relationshipRepositories) {
+            repositoryClasses.add(relationshipRepository.getRepositoryClass());
         }
+        return repositoryClasses;
+    }
 
-        return foundRelationshipRepository;
+    /**
+     * Returns a relationship repository whose target type is the provided class. If there's more than one, the first
+     * registered repository is returned.
+     *
+     * @param clazz target class of a relationship
+     * @return found repository or <i>null</i> if there's no repository for the class
+     */
+    public RelationshipRepository<T, ?, ?, ?> getRelationshipRepositoryForClass(Class clazz) {
+        RepositoryHandle<RelationshipRepository<T, ?, ?, ?>> handle = relationshipRepositoriesByTarget.get(clazz);
+        return handle != null ? handle.get() : null;
+    }
+
+    /**
+     * Obtains all of the repositories which have not been obtained yet.
+     *
+     * @throws io.katharsis.repository.RepositoryNotFoundException if a repository cannot be obtained
+     */
+    public void resolveRepositories() {
+        resourceRepository.get();
+        for (RepositoryHandle<RelationshipRepository<T, ?, ?, ?>> relationshipRepository : relationshipRepositories) {
+            relationshipRepository.get();
+        }
     }
 
     public ResourceInformation getResourceInformation() {
@@ -0,0 +1,238 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reads and writes {@link RepositoryBindings} of a package in a compact binary file, so a restart of the same
+ * artifact doesn't have to scan the classpath and resolve generic types of repositories again. The file starts with
+ * a key computed from the scanned package and the classpath, a file with a different key is ignored.
+ * <p>
+ * The file consists of big-endian values: magic number, format version, key length and key bytes, number of
+ * resources, and for each resource its class name, entity repository class name, number of relationship
+ * repositories and their class names. Strings are written as a length followed by UTF-8 bytes.
+ */
+final class RegistrySnapshotFile {
+
+    private static final int MAGIC = 0x4B415453;
+    private static final int FORMAT_VERSION = 1;
+    private static final String KEY_ALGORITHM = "SHA-256";
+
+    private RegistrySnapshotFile() {
+    }
+
+    /**
+     * Computes a key which changes whenever a class in the package or a classpath entry may have changed. Archives
+     * and class files of the package are identified by their path, size and modification time, directories on the
+     * classpath by their path.
+     *
+     * @param packageName scanned package
+     * @param classLoader class loader used to find the package
+     * @return key of a snapshot
+     */
+    static byte[] computeKey(String packageName, ClassLoader classLoader) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(KEY_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, FORMAT_VERSION + ":" + packageName);
+        String classPath = System.getProperty("java.class.path", "");
+        for (String classPathEntry : classPath.split(File.pathSeparator)) {
+            File classPathFile = new File(classPathEntry);
+            if (classPathFile.isDirectory()) {
+                // a directory changes with any file written to it, classes of the package are checked below
+                update(digest, classPathFile.getPath());
+            } else if (!classPathEntry.isEmpty()) {
+                updateWithFile(digest, classPathFile.toPath());
+            }
+        }
+        String packagePath = packageName.replace('.', '/');
+        Enumeration<URL> packageUrls = classLoader.getResources(packagePath);
+        while (packageUrls.hasMoreElements()) {
+            URL packageUrl = packageUrls.nextElement();
+            update(digest, packageUrl.toExternalForm());
+            if ("file".equals(packageUrl.getProtocol())) {
+                updateWithDirectory(digest, toPath(packageUrl));
+            } else if ("jar".equals(packageUrl.getProtocol())) {
+                URL jarFileUrl = ((JarURLConnection) packageUrl.openConnection()).getJarFileURL();
+                if ("file".equals(jarFileUrl.getProtocol())) {
+                    updateWithFile(digest, toPath(jarFileUrl));
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private static Path toPath(URL fileUrl) throws UnsupportedEncodingException {
+        try {
+            return Paths.get(fileUrl.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return Paths.get(URLDecoder.decode(fileUrl.getPath(), StandardCharsets.UTF_8.name()));
+        }
+    }
+
+    private static void updateWithDirectory(MessageDigest digest, Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.filter(Files::isRegularFile)
+                    .sorted()
+                    .forEach(file -> updateWithFile(digest, file));
+        }
+    }
+
+    private static void updateWithFile(MessageDigest digest, Path file) {
+        File ioFile = file.toFile();
+        update(digest, ioFile.getPath() + ":" + ioFile.length() + ":" + ioFile.lastModified());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Reads bindings from a memory-mapped snapshot.
+     *
+     * @param file        snapshot file
+     * @param key         expected key of the snapshot
+     * @param classLoader class loader used to load the classes
+     * @return read bindings or <i>null</i> if the file doesn't exist, is damaged, has a different key or lists a
+     * class which cannot be loaded
+     */
+    static RepositoryBindings read(Path file, byte[] key, ClassLoader classLoader) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            return null;
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            if (!Arrays.equals(key, readBytes(buffer))) {
+                return null;
+            }
+
+            int resourceCount = buffer.getInt();
+            List<Class<?>> resourceClasses = new ArrayList<>();
+            Map<Class<?>, Class<? extends ResourceRepository>> entityRepositoryClasses = new HashMap<>();
+            Map<Class<?>, List<Class<? extends RelationshipRepository>>> relationshipRepositoryClasses = new HashMap<>();
+            for (int i = 0; i < resourceCount; i++) {
+                Class<?> resourceClass = loadClass(readString(buffer), classLoader);
+                resourceClasses.add(resourceClass);
+                entityRepositoryClasses.put(resourceClass,
+                        loadClass(readString(buffer), classLoader).asSubclass(ResourceRepository.class));
+                int relationshipRepositoryCount = buffer.getInt();
+                List<Class<? extends RelationshipRepository>> relationshipRepositories = new ArrayList<>();
+                for (int j = 0; j < relationshipRepositoryCount; j++) {
+                    relationshipRepositories.add(loadClass(readString(buffer), classLoader)
+                            .asSubclass(RelationshipRepository.class));
+                }
+                relationshipRepositoryClasses.put(resourceClass, relationshipRepositories);
+            }
+            return new RepositoryBindings(resourceClasses, entityRepositoryClasses, relationshipRepositoryClasses);
+        } catch (BufferUnderflowException | IllegalArgumentException | ClassNotFoundException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return new String(readBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        return Class.forName(name, false, classLoader);
+    }
+
+    /**
+     * Writes bindings to a temporary file which then replaces the snapshot, so a concurrently starting instance never
+     * reads a partially written file.
+     *
+     * @param file     snapshot file
+     * @param key      key of the snapshot
+     * @param bindings bindings of all of the resources, each with an entity repository
+     */
+    static void write(Path file, byte[] key, RepositoryBindings bindings) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(key.length);
+                output.write(key);
+                output.writeInt(bindings.getResourceClasses().size());
+                for (Class<?> resourceClass : bindings.getResourceClasses()) {
+                    writeString(output, resourceClass.getName());
+                    writeString(output, bindings.getEntityRepositoryClass(resourceClass).getName());
+                    List<Class<? extends RelationshipRepository>> relationshipRepositoryClasses =
+                            bindings.getRelationshipRepositoryClasses(resourceClass);
+                    output.writeInt(relationshipRepositoryClasses.size());
+                    for (Class<? extends RelationshipRepository> relationshipRepositoryClass : relationshipRepositoryClasses) {
+                        writeString(output, relationshipRepositoryClass.getName());
+                    }
+                }
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
@@ -0,0 +1,106 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.utils.ClassScanner;
+import net.jodah.typetools.TypeResolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resource classes of a package together with repository classes bound to each of them. Bindings are the result of
+ * a classpath scan and of resolving generic types of the repositories, which is the part of building a registry
+ * that {@link RegistrySnapshotFile} persists between restarts.
+ */
+final class RepositoryBindings {
+
+    private static final Comparator<Class<?>> CLASS_NAME_COMPARATOR = Comparator.comparing(Class::getName);
+
+    private final List<Class<?>> resourceClasses;
+    private final Map<Class<?>, Class<? extends ResourceRepository>> entityRepositoryClasses;
+    private final Map<Class<?>, List<Class<? extends RelationshipRepository>>> relationshipRepositoryClasses;
+
+    RepositoryBindings(List<Class<?>> resourceClasses,
+                       Map<Class<?>, Class<? extends ResourceRepository>> entityRepositoryClasses,
+                       Map<Class<?>, List<Class<? extends RelationshipRepository>>> relationshipRepositoryClasses) {
+        this.resourceClasses = resourceClasses;
+        this.entityRepositoryClasses = entityRepositoryClasses;
+        this.relationshipRepositoryClasses = relationshipRepositoryClasses;
+    }
+
+    /**
+     * Finds resources and repositories of a package. Resources are sorted by class name, and so are repositories of
+     * each resource, so the first entity repository by name is bound to a resource.
+     */
+    static RepositoryBindings scan(ClassScanner classScanner, String packageName) {
+        List<Class<?>> resourceClasses = sortByName(classScanner.getTypesAnnotatedWith(JsonApiResource.class, packageName));
+
+        Map<Class<?>, Class<? extends ResourceRepository>> entityRepositoryClasses = new HashMap<>();
+        for (Map.Entry<Class<?>, List<Class<? extends ResourceRepository>>> entry : indexRepositories(
+                ResourceRepository.class, classScanner.getSubTypesOf(ResourceRepository.class, packageName)).entrySet()) {
+            entityRepositoryClasses.put(entry.getKey(), entry.getValue().get(0));
+        }
+        Map<Class<?>, List<Class<? extends RelationshipRepository>>> relationshipRepositoryClasses = indexRepositories(
+                RelationshipRepository.class, classScanner.getSubTypesOf(RelationshipRepository.class, packageName));
+
+        return new RepositoryBindings(resourceClasses, entityRepositoryClasses, relationshipRepositoryClasses);
+    }
+
+    /**
+     * Indexes repository classes by their resource class, so generics of each repository are resolved only once.
+     */
+    private static <R> Map<Class<?>, List<Class<? extends R>>> indexRepositories(Class<R> repositoryType,
+                                                                                 Collection<Class<? extends R>> repositoryClasses) {
+        Map<Class<?>, List<Class<? extends R>>> repositoriesByResource = new HashMap<>();
+        for (Class<? extends R> repositoryClass : sortByName(repositoryClasses)) {
+            Class<?>[] typeArgs = TypeResolver.resolveRawArguments(repositoryType, repositoryClass);
+            repositoriesByResource.computeIfAbsent(typeArgs[0], resourceClass -> new ArrayList<>()).add(repositoryClass);
+        }
+        return repositoriesByResource;
+    }
+
+    private static <C extends Class<?>> List<C> sortByName(Collection<C> classes) {
+        List<C> sortedClasses = new ArrayList<>(classes);
+        sortedClasses.sort(CLASS_NAME_COMPARATOR);
+        return sortedClasses;
+    }
+
+    /**
+     * @return resource classes sorted by name
+     */
+    List<Class<?>> getResourceClasses() {
+        return resourceClasses;
+    }
+
+    /**
+     * @return entity repository class of the resource or <i>null</i> if there's none
+     */
+    Class<? extends ResourceRepository> getEntityRepositoryClass(Class<?> resourceClass) {
+        return entityRepositoryClasses.get(resourceClass);
+    }
+
+    List<Class<? extends RelationshipRepository>> getRelationshipRepositoryClasses(Class<?> resourceClass) {
+        return relationshipRepositoryClasses.getOrDefault(resourceClass, Collections.emptyList());
+    }
+
+    /**
+     * Narrows a repository class to the parameterized repository type of its resource. Type arguments of a repository
+     * class cannot be checked at runtime, but the bindings have already matched the first one against the resource
+     * class, so this is the only unchecked conversion needed to build an entry.
+     *
+     * @param repositoryClass class bound to a resource by these bindings
+     * @param <R>             repository type parameterized with the resource type
+     * @return the same class
+     */
+    @SuppressWarnings("unchecked")
+    static <R> Class<? extends R> repositoryOf(Class<?> repositoryClass) {
+        return (Class<? extends R>) repositoryClass;
+    }
+}
@@ -0,0 +1,105 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.locator.JsonServiceLocator;
+import io.katharsis.repository.RepositoryNotFoundException;
+
+import java.util.Objects;
+
+/**
+ * Holds a repository of a {@link RegistryEntry}. A handle is either created with an already obtained instance, or
+ * with a repository class which is resolved using {@link JsonServiceLocator} on first use. Resolution is thread-safe
+ * and the locator is asked for an instance at most once, unless it returns <i>null</i>.
+ *
+ * @param <R> repository type
+ */
+public final class RepositoryHandle<R> {
+
+    private final Class<? extends R> repositoryClass;
+    private final JsonServiceLocator locator;
+    private volatile R instance;
+
+    private RepositoryHandle(Class<? extends R> repositoryClass, JsonServiceLocator locator, R instance) {
+        this.repositoryClass = repositoryClass;
+        this.locator = locator;
+        this.instance = instance;
+    }
+
+    /**
+     * @param instance repository instance, can be <i>null</i>
+     * @param <R>      repository type
+     * @return resolved handle
+     */
+    public static <R> RepositoryHandle<R> of(R instance) {
+        return new RepositoryHandle<>(null, null, instance);
+    }
+
+    /**
+     * @param repositoryClass class of the repository
+     * @param locator         locator used to obtain an instance on first use, must be thread-safe
+     * @param <R>             repository type
+     * @return handle which is not resolved yet
+     */
+    public static <R> RepositoryHandle<R> lazy(Class<? extends R> repositoryClass, JsonServiceLocator locator) {
+        return new RepositoryHandle<>(repositoryClass, locator, null);
+    }
+
+    /**
+     * Returns the repository, obtaining it from the locator if it has not been obtained yet.
+     *
+     * @return repository instance
+     * @throws RepositoryNotFoundException if the locator returns <i>null</i>
+     */
+    public R get() {
+        R result = instance;
+        if (result == null && locator != null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    result = locator.getInstance(repositoryClass);
+                    if (result == null) {
+                        throw new RepositoryNotFoundException(repositoryClass.getCanonicalName());
+                    }
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return class of the repository, <i>null</i> if the handle was created without an instance
+     */
+    public Class<?> getRepositoryClass() {
+        if (repositoryClass != null) {
+            return repositoryClass;
+        }
+        R result = instance;
+        return result != null ? result.getClass() : null;
+    }
+
+    /**
+     * @return true if the repository has been obtained
+     */
+    public boolean isResolved() {
+        return instance != null || locator == null;
+    }
+
+    /**
+     * Handles created with an instance are equal if the instances are equal. Lazy handles are equal if they resolve
+     * the same class with the same locator, whether they are resolved or not.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RepositoryHandle<?> that = (RepositoryHandle<?>) o;
+        return Objects.equals(repositoryClass, that.repositoryClass) &&
+                Objects.equals(locator, that.locator) &&
+                (locator != null || Objects.equals(instance, that.instance));
+    }
+
+    @Override
+    public int hashCode() {
+        return locator != null ? Objects.hash(repositoryClass, locator) : Objects.hashCode(instance);
+    }
+}
@@ -1,57 +1,105 @@
 package io.katharsis.resource.registry;
 
-import io.katharsis.resource.annotations.JsonApiResource;
-import io.katharsis.resource.exception.init.ResourceNotFoundInitalizationException;
-
-import java.lang.annotation.Annotation;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
+/**
+ * Holds all of the resources. The resources are kept in an immutable {@link ResourceRegistrySnapshot}, which is
+ * replaced with a new copy each time resources are added or removed. Lookups read the current snapshot without any
+ * locking, so resources can be registered and removed while requests are being served. A reader which needs a
+ * consistent view over several lookups should use {@link #getSnapshot()}.
+ */
 public class ResourceRegistry {
-    private final Map<Class, RegistryEntry> resources = new HashMap<>();
+    private final AtomicReference<ResourceRegistrySnapshot> snapshot;
     private final String serviceUrl;
 
     public ResourceRegistry(String serviceUrl) {
         this.serviceUrl = serviceUrl;
+        this.snapshot = new AtomicReference<>(new ResourceRegistrySnapshot(serviceUrl, new LinkedHashMap<>()));
     }
 
     public <T> void addEntry(Class<T> resource, RegistryEntry<? extends T> registryEntry) {
-        resources.put(resource, registryEntry);
+        addEntries(Collections.<Class, RegistryEntry>singletonMap(resource, registryEntry));
     }
 
-    public RegistryEntry getEntry(String searchType) {
-        RegistryEntry registryEntry = null;
-        for (Map.Entry<Class, RegistryEntry> entry : resources.entrySet()) {
-            String type = getResourceType(entry.getKey());
-            if (type.equals(searchType)) {
-                registryEntry = entry.getValue();
+    /**
+     * Adds resources and publishes them at once, so readers see either none or all of them. An entry of an already
+     * registered class is replaced.
+     *
+     * @param registryEntries entries of the added resources
+     */
+    public void addEntries(Map<Class, RegistryEntry> registryEntries) {
+        update(currentSnapshot -> currentSnapshot.withEntries(registryEntries));
+    }
+
+    /**
+     * Removes resources and publishes the change at once. Relationships of remaining resources which target removed
+     * resources cannot be resolved by the new snapshot.
+     *
+     * @param resources classes of the removed resources
+     */
+    public void removeEntries(Collection<Class> resources) {
+        update(currentSnapshot -> currentSnapshot.withoutEntries(resources));
+    }
+
+    public void removeEntry(Class resource) {
+        removeEntries(Collections.singletonList(resource));
+    }
+
+    /**
+     * Writers are serialized, readers are never blocked. A snapshot is never modified after it is published, so
+     * relationship targets are resolved by the snapshot of the reader.
+     */
+    private synchronized void update(UnaryOperator<ResourceRegistrySnapshot> change) {
+        snapshot.set(change.apply(snapshot.get()));
+    }
+
+    /**
+     * @return current state of the registry, which is not affected by later changes
+     */
+    public ResourceRegistrySnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Obtains repositories of all of the entries in the background, so the first requests don't have to wait for
+     * lazily resolved repositories.
+     *
+     * @param executor executor which resolves the repositories
+     * @return future completed when all of the repositories are obtained, or completed exceptionally with
+     * {@link io.katharsis.repository.RepositoryNotFoundException} if one of them cannot be obtained
+     */
+    public CompletableFuture<Void> warmUp(Executor executor) {
+        List<RegistryEntry> registryEntries = new ArrayList<>(getSnapshot().getEntries().values());
+        return CompletableFuture.runAsync(() -> {
+            for (RegistryEntry registryEntry : registryEntries) {
+                registryEntry.resolveRepositories();
             }
-        }
-        return registryEntry;
+        }, executor);
+    }
+
+    public RegistryEntry getEntry(String searchType) {
+        return getSnapshot().getEntry(searchType);
     }
 
     public RegistryEntry getEntry(Class clazz) {
-        RegistryEntry registryEntry = resources.get(clazz);
-        if (registryEntry != null) {
-            return registryEntry;
-        }
-        throw new ResourceNotFoundInitalizationException(clazz.getCanonicalName());
+        return getSnapshot().getEntry(clazz);
     }
 
     public String getResourceType(Class clazz) {
-        Annotation[] annotations = clazz.getAnnotations();
-        for (Annotation annotation : annotations) {
-            if (annotation instanceof JsonApiResource) {
-                JsonApiResource apiResource = (JsonApiResource) annotation;
-                return apiResource.type();
-            }
-        }
-        // won't reach this
-        return null;
+        return getSnapshot().getResourceType(clazz);
     }
 
     public String getResourceUrl(Class clazz) {
-        return serviceUrl + "/" + getResourceType(clazz);
+        return getSnapshot().getResourceUrl(clazz);
     }
 
     public String getServiceUrl() {
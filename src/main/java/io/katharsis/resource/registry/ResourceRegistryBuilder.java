@@ -4,28 +4,63 @@ import io.katharsis.locator.JsonServiceLocator;
 import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.repository.RepositoryNotFoundException;
 import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.RelationshipInfo;
 import io.katharsis.resource.ResourceInformation;
 import io.katharsis.resource.ResourceInformationBuilder;
-import io.katharsis.resource.annotations.JsonApiResource;
-import net.jodah.typetools.TypeResolver;
-import org.reflections.Reflections;
+import io.katharsis.utils.ClassScanner;
 
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
- * Builder responsible for building an instance of ResourceRegistry.
+ * Builder responsible for building an instance of ResourceRegistry. Resources are processed in the order of their
+ * class names, so errors are reported the same way on every build. If a {@link ForkJoinPool} is provided, entries
+ * are created in parallel on the pool, which requires {@link JsonServiceLocator} to be thread-safe. Parallel and
+ * serial builds produce the same registry and report the same error.
+ * <p>
+ * By default all of the repositories are obtained from {@link JsonServiceLocator} while the registry is built. With
+ * {@link #withLazyRepositories() lazy repositories} only the repository classes are validated while building, and
+ * each repository is obtained when it is used for the first time or when
+ * {@link ResourceRegistry#warmUp(java.util.concurrent.Executor)} is called.
  */
 public class ResourceRegistryBuilder {
 
     private JsonServiceLocator context;
     private ResourceInformationBuilder resourceInformationBuilder;
+    private ForkJoinPool forkJoinPool;
+    private boolean lazyRepositories;
 
     public ResourceRegistryBuilder(JsonServiceLocator context, ResourceInformationBuilder resourceInformationBuilder) {
+        this(context, resourceInformationBuilder, null);
+    }
+
+    /**
+     * @param context                    locator of repositories, must be thread-safe if a pool is provided
+     * @param resourceInformationBuilder builder of resource information
+     * @param forkJoinPool               pool used to create registry entries in parallel, <i>null</i> for a serial build
+     */
+    public ResourceRegistryBuilder(JsonServiceLocator context, ResourceInformationBuilder resourceInformationBuilder,
+                                   ForkJoinPool forkJoinPool) {
         this.context = context;
         this.resourceInformationBuilder = resourceInformationBuilder;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Makes the builder obtain repositories from the locator on first use instead of while building, which requires
+     * the locator to be thread-safe.
+     *
+     * @return this builder
+     */
+    public ResourceRegistryBuilder withLazyRepositories() {
+        this.lazyRepositories = true;
+        return this;
     }
 
     /**
@@ -36,65 +71,158 @@ public class ResourceRegistryBuilder {
      * @return an instance of ResourceRegistry
      */
     public ResourceRegistry build(String packageName, String serviceUrl) {
-        Reflections reflections = new Reflections(packageName);
+        return build(new ClassScanner(packageName), packageName, serviceUrl);
+    }
 
-        Set<Class<?>> jsonApiResources = reflections.getTypesAnnotatedWith(JsonApiResource.class);
-        Set<Class<? extends ResourceRepository>> entityRepositoryClasses = reflections.getSubTypesOf(ResourceRepository.class);
-        Set<Class<? extends RelationshipRepository>> relationshipRepositoryClasses = reflections
-                .getSubTypesOf(RelationshipRepository.class);
+    /**
+     * Finds all resources and repositories associated with found resource in provided package using a scanner shared
+     * with other registry builders.
+     *
+     * @param classScanner scanner which includes the package
+     * @param packageName  Package containing resources (models) and repositories.
+     * @param serviceUrl   URL to the service
+     * @return an instance of ResourceRegistry
+     */
+    public ResourceRegistry build(ClassScanner classScanner, String packageName, String serviceUrl) {
+        return build(RepositoryBindings.scan(classScanner, packageName), serviceUrl);
+    }
 
-        ResourceRegistry resourceRegistry = new ResourceRegistry(serviceUrl);
-        for (Class resourceClass : jsonApiResources) {
-            Class<? extends ResourceRepository> foundEntityRepositoryClass = findEntityRepository(resourceClass, entityRepositoryClasses);
-            Set<Class<? extends RelationshipRepository>> foundRelationshipRepositoriesClasses =
-                    findRelationshipRepositories(resourceClass, relationshipRepositoryClasses);
+    /**
+     * Builds a registry using resource and repository classes stored in a snapshot file by a previous start of the
+     * same application, so the classpath doesn't have to be scanned. If the file doesn't exist or the package or
+     * the classpath have changed since it was written, the package is scanned and a new snapshot is written. A
+     * snapshot which cannot be written is ignored, the next start scans the package again.
+     *
+     * @param packageName  Package containing resources (models) and repositories.
+     * @param serviceUrl   URL to the service
+     * @param snapshotFile file which keeps resource and repository classes between restarts
+     * @return an instance of ResourceRegistry
+     */
+    public ResourceRegistry build(String packageName, String serviceUrl, Path snapshotFile) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ResourceRegistryBuilder.class.getClassLoader();
+        }
+        byte[] snapshotKey;
+        try {
+            snapshotKey = RegistrySnapshotFile.computeKey(packageName, classLoader);
+        } catch (IOException e) {
+            return build(packageName, serviceUrl);
+        }
 
-            RegistryEntry registryEntry = createEntry(resourceClass, foundEntityRepositoryClass, foundRelationshipRepositoriesClasses);
-            resourceRegistry.addEntry(resourceClass, registryEntry);
+        RepositoryBindings bindings = RegistrySnapshotFile.read(snapshotFile, snapshotKey, classLoader);
+        if (bindings != null) {
+            return build(bindings, serviceUrl);
+        }
+        bindings = RepositoryBindings.scan(new ClassScanner(packageName), packageName);
+        ResourceRegistry resourceRegistry = build(bindings, serviceUrl);
+        try {
+            RegistrySnapshotFile.write(snapshotFile, snapshotKey, bindings);
+        } catch (IOException e) {
+            // the registry is complete without the snapshot
+        }
+        return resourceRegistry;
+    }
+
+    private ResourceRegistry build(RepositoryBindings bindings, String serviceUrl) {
+        List<Class<?>> jsonApiResources = bindings.getResourceClasses();
+        List<RegistryEntry> registryEntries = createEntries(bindings);
+
+        Map<Class, RegistryEntry> registryEntriesByClass = new LinkedHashMap<>();
+        for (int i = 0; i < jsonApiResources.size(); i++) {
+            registryEntriesByClass.put(jsonApiResources.get(i), registryEntries.get(i));
+        }
+        ResourceRegistry resourceRegistry = new ResourceRegistry(serviceUrl);
+        resourceRegistry.addEntries(registryEntriesByClass);
+        for (RegistryEntry registryEntry : registryEntries) {
+            verifyRelationships(resourceRegistry, registryEntry);
         }
 
         return resourceRegistry;
     }
 
-    private Class<? extends ResourceRepository> findEntityRepository(Class resourceClass,
-                                                                     Set<Class<? extends ResourceRepository>> entityRepositoryClasses) {
-        for (Class<? extends ResourceRepository> entityRepositoryClass : entityRepositoryClasses) {
-            Class<?>[] typeArgs = TypeResolver.resolveRawArguments(ResourceRepository.class, entityRepositoryClass);
-            if (typeArgs[0] == resourceClass) {
-                return entityRepositoryClass;
+    private List<RegistryEntry> createEntries(RepositoryBindings bindings) {
+        List<Class<?>> resourceClasses = bindings.getResourceClasses();
+        List<RegistryEntry> registryEntries = new ArrayList<>(resourceClasses.size());
+        if (forkJoinPool == null) {
+            for (Class<?> resourceClass : resourceClasses) {
+                registryEntries.add(createEntry(resourceClass, bindings));
             }
+            return registryEntries;
         }
-        throw new RepositoryNotFoundException(resourceClass.getCanonicalName());
-    }
 
-    private Set<Class<? extends RelationshipRepository>> findRelationshipRepositories(Class resourceClass,
-                                                                                      Set<Class<? extends RelationshipRepository>> relationshipRepositoryClasses) {
-        Set<Class<? extends RelationshipRepository>> foundRelationshipRepositories = new HashSet<>();
-        for (Class<? extends RelationshipRepository> relationshipRepository : relationshipRepositoryClasses) {
-            Class<?>[] typeArgs = TypeResolver.resolveRawArguments(RelationshipRepository.class, relationshipRepository);
-            if (typeArgs[0] == resourceClass) {
-                foundRelationshipRepositories.add(relationshipRepository);
+        List<ForkJoinTask<EntryResult>> tasks = new ArrayList<>(resourceClasses.size());
+        for (Class<?> resourceClass : resourceClasses) {
+            tasks.add(forkJoinPool.submit(() -> {
+                try {
+                    return new EntryResult(createEntry(resourceClass, bindings), null);
+                } catch (RuntimeException e) {
+                    return new EntryResult(null, e);
+                }
+            }));
+        }
+        // all of the tasks are completed before an error is reported, the error of the first class by name wins
+        List<EntryResult> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<EntryResult> task : tasks) {
+            results.add(task.join());
+        }
+        for (EntryResult result : results) {
+            if (result.error != null) {
+                throw result.error;
             }
+            registryEntries.add(result.registryEntry);
         }
-        return foundRelationshipRepositories;
+        return registryEntries;
     }
 
-    private RegistryEntry createEntry(Class resourceClass, Class<? extends ResourceRepository> foundEntityRepositoryClass,
-                                      Set<Class<? extends RelationshipRepository>> foundRelationshipRepositoriesClasses) {
-        ResourceInformation resourceInformation = resourceInformationBuilder.build(resourceClass);
+    /**
+     * Checks that targets of all relationships of a resource are registered.
+     */
+    private void verifyRelationships(ResourceRegistry resourceRegistry, RegistryEntry<?> registryEntry) {
+        for (RelationshipInfo relationshipInfo : registryEntry.getResourceInformation().getRelationshipInfos()) {
+            resourceRegistry.getEntry(relationshipInfo.getTargetClass());
+        }
+    }
 
-        ResourceRepository resourceRepository = context.getInstance(foundEntityRepositoryClass);
-        if (resourceRepository == null) {
-            throw new RepositoryNotFoundException(foundEntityRepositoryClass.getCanonicalName());
+    private <T> RegistryEntry<T> createEntry(Class<T> resourceClass, RepositoryBindings bindings) {
+        Class<? extends ResourceRepository> foundEntityRepositoryClass = bindings.getEntityRepositoryClass(resourceClass);
+        if (foundEntityRepositoryClass == null) {
+            throw new RepositoryNotFoundException(resourceClass.getCanonicalName());
         }
-        List<RelationshipRepository> relationshipRepositories = new LinkedList<>();
+        List<Class<? extends RelationshipRepository>> foundRelationshipRepositoriesClasses =
+                bindings.getRelationshipRepositoryClasses(resourceClass);
+
+        ResourceInformation resourceInformation = resourceInformationBuilder.build(resourceClass);
+
+        RepositoryHandle<ResourceRepository<T, ?>> resourceRepository =
+                createHandle(RepositoryBindings.<ResourceRepository<T, ?>>repositoryOf(foundEntityRepositoryClass));
+        List<RepositoryHandle<RelationshipRepository<T, ?, ?, ?>>> relationshipRepositories =
+                new ArrayList<>(foundRelationshipRepositoriesClasses.size());
         for (Class<? extends RelationshipRepository> relationshipRepositoryClass : foundRelationshipRepositoriesClasses) {
-            RelationshipRepository relationshipRepository = context.getInstance(relationshipRepositoryClass);
-            if (relationshipRepository == null) {
-                throw new RepositoryNotFoundException(foundEntityRepositoryClass.getCanonicalName());
-            }
-            relationshipRepositories.add(relationshipRepository);
+            relationshipRepositories.add(
+                    createHandle(RepositoryBindings.<RelationshipRepository<T, ?, ?, ?>>repositoryOf(relationshipRepositoryClass)));
+        }
+        return RegistryEntry.create(resourceInformation, resourceRepository, relationshipRepositories);
+    }
+
+    private <R> RepositoryHandle<R> createHandle(Class<? extends R> repositoryClass) {
+        RepositoryHandle<R> handle = RepositoryHandle.lazy(repositoryClass, context);
+        if (!lazyRepositories) {
+            handle.get();
+        }
+        return handle;
+    }
+
+    /**
+     * Outcome of creating an entry on a pool, errors are kept so they can be reported in a deterministic order.
+     */
+    private static class EntryResult {
+        private final RegistryEntry registryEntry;
+        private final RuntimeException error;
+
+        private EntryResult(RegistryEntry registryEntry, RuntimeException error) {
+            this.registryEntry = registryEntry;
+            this.error = error;
         }
-        return new RegistryEntry(resourceInformation, resourceRepository, relationshipRepositories);
     }
 }
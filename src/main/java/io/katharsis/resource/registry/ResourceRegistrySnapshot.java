@@ -0,0 +1,126 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.resource.RelationshipInfo;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.exception.ResourceNotFoundException;
+import io.katharsis.resource.exception.init.ResourceNotFoundInitalizationException;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable state of a {@link ResourceRegistry}. Resource types and URLs are computed once when a snapshot is
+ * created, so lookups by type name or by class are single hash map probes. Each change of the registry publishes a
+ * new snapshot, so a reader which keeps a snapshot sees a consistent set of resources without any locking.
+ */
+public final class ResourceRegistrySnapshot {
+    private final Map<Class, RegistryEntry> resources;
+    private final Map<String, RegistryEntry> resourcesByType = new HashMap<>();
+    private final Map<Class, String> resourceTypes = new HashMap<>();
+    private final Map<Class, String> resourceUrls = new HashMap<>();
+    private final String serviceUrl;
+
+    ResourceRegistrySnapshot(String serviceUrl, Map<Class, RegistryEntry> resources) {
+        this.serviceUrl = serviceUrl;
+        this.resources = Collections.unmodifiableMap(resources);
+        for (Map.Entry<Class, RegistryEntry> resource : resources.entrySet()) {
+            String type = findResourceType(resource.getKey());
+            if (type != null) {
+                resourcesByType.put(type, resource.getValue());
+                resourceTypes.put(resource.getKey(), type);
+                resourceUrls.put(resource.getKey(), serviceUrl + "/" + type);
+            }
+        }
+    }
+
+    ResourceRegistrySnapshot withEntries(Map<Class, RegistryEntry> addedResources) {
+        Map<Class, RegistryEntry> newResources = new LinkedHashMap<>(resources);
+        newResources.putAll(addedResources);
+        return new ResourceRegistrySnapshot(serviceUrl, newResources);
+    }
+
+    ResourceRegistrySnapshot withoutEntries(Collection<Class> removedResources) {
+        Map<Class, RegistryEntry> newResources = new LinkedHashMap<>(resources);
+        newResources.keySet().removeAll(removedResources);
+        return new ResourceRegistrySnapshot(serviceUrl, newResources);
+    }
+
+    public RegistryEntry getEntry(String searchType) {
+        return resourcesByType.get(searchType);
+    }
+
+    public RegistryEntry getEntry(Class clazz) {
+        RegistryEntry registryEntry = resources.get(clazz);
+        if (registryEntry != null) {
+            return registryEntry;
+        }
+        throw new ResourceNotFoundInitalizationException(clazz.getCanonicalName());
+    }
+
+    /**
+     * @param clazz resource class
+     * @return entry of the class or <i>null</i> if the class is not registered
+     */
+    public RegistryEntry findEntry(Class clazz) {
+        return resources.get(clazz);
+    }
+
+    /**
+     * Returns the entry of the resource which a relationship targets. The target is resolved against this snapshot,
+     * so a reader which keeps the snapshot sees the same target even if the registry changes meanwhile.
+     *
+     * @param relationshipInfo relationship of a registered resource
+     * @return entry of the target resource
+     * @throws ResourceNotFoundException if the target resource is not registered, e.g. it has been removed
+     */
+    public RegistryEntry getTargetEntry(RelationshipInfo relationshipInfo) {
+        RegistryEntry targetEntry = resources.get(relationshipInfo.getTargetClass());
+        if (targetEntry != null) {
+            return targetEntry;
+        }
+        throw new ResourceNotFoundException(relationshipInfo.getTargetClass());
+    }
+
+    /**
+     * @return unmodifiable map of registered resource classes and their entries, in the order of registration
+     */
+    public Map<Class, RegistryEntry> getEntries() {
+        return resources;
+    }
+
+    public String getResourceType(Class clazz) {
+        String type = resourceTypes.get(clazz);
+        if (type != null) {
+            return type;
+        }
+        return findResourceType(clazz);
+    }
+
+    public String getResourceUrl(Class clazz) {
+        String url = resourceUrls.get(clazz);
+        if (url != null) {
+            return url;
+        }
+        return serviceUrl + "/" + findResourceType(clazz);
+    }
+
+    public String getServiceUrl() {
+        return serviceUrl;
+    }
+
+    private static String findResourceType(Class<?> clazz) {
+        Annotation[] annotations = clazz.getAnnotations();
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof JsonApiResource) {
+                JsonApiResource apiResource = (JsonApiResource) annotation;
+                return apiResource.type();
+            }
+        }
+        // won't reach this
+        return null;
+    }
+}
@@ -1,7 +1,11 @@
 package io.katharsis.response;
 
 import io.katharsis.jackson.serializer.ContainerSerializer;
+import io.katharsis.queryParams.IncludePath;
+import io.katharsis.queryParams.RequestParams;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Objects;
 
 /**
@@ -10,6 +14,8 @@ import java.util.Objects;
  */
 public class Container<T> {
     T data;
+    private RequestParams requestParams;
+    private Collection<IncludePath> includePaths;
 
     public Container() {
     }
@@ -18,10 +24,50 @@ public class Container<T> {
         this.data = data;
     }
 
+    /**
+     * @param data          resource instance
+     * @param requestParams parameters of the request the resource is returned for, can be <i>null</i>. They are not
+     *                      used in {@link #equals(Object)}.
+     */
+    public Container(T data, RequestParams requestParams) {
+        this.data = data;
+        this.requestParams = requestParams;
+    }
+
+    /**
+     * @param data          included resource instance
+     * @param requestParams parameters of the request the resource is returned for, can be <i>null</i>
+     * @param includePaths  nodes of the include tree which lead to the resource, empty if the resource is included by
+     *                      default
+     */
+    public Container(T data, RequestParams requestParams, Collection<IncludePath> includePaths) {
+        this.data = data;
+        this.requestParams = requestParams;
+        this.includePaths = includePaths;
+    }
+
     public T getData() {
         return data;
     }
 
+    public RequestParams getRequestParams() {
+        return requestParams;
+    }
+
+    /**
+     * @return nodes of the include tree which lead to the resource. A resource of the primary data is at the root of
+     * the tree.
+     */
+    public Collection<IncludePath> getIncludePaths() {
+        if (includePaths != null) {
+            return includePaths;
+        }
+        if (requestParams != null && requestParams.getIncludePath() != null) {
+            return Collections.singletonList(requestParams.getIncludePath());
+        }
+        return Collections.emptyList();
+    }
+
     public void setData(T data) {
         this.data = data;
     }
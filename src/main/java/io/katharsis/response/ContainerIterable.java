@@ -0,0 +1,49 @@
+package io.katharsis.response;
+
+import io.katharsis.queryParams.RequestParams;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * A view of resources returned by a repository, which wraps each resource in a {@link Container} when it is pulled
+ * from the iterator. Resources are neither copied nor kept, so a lazy repository result is streamed to the response
+ * one resource at a time.
+ */
+public class ContainerIterable implements Iterable<Container> {
+
+    private final Iterable<?> resources;
+    private final RequestParams requestParams;
+
+    /**
+     * @param resources resources returned by a repository, can be <i>null</i>
+     */
+    public ContainerIterable(Iterable<?> resources) {
+        this(resources, null);
+    }
+
+    /**
+     * @param resources     resources returned by a repository, can be <i>null</i>
+     * @param requestParams parameters of the request the resources are returned for, can be <i>null</i>
+     */
+    public ContainerIterable(Iterable<?> resources, RequestParams requestParams) {
+        this.resources = resources != null ? resources : Collections.emptyList();
+        this.requestParams = requestParams;
+    }
+
+    @Override
+    public Iterator<Container> iterator() {
+        Iterator<?> resourceIterator = resources.iterator();
+        return new Iterator<Container>() {
+            @Override
+            public boolean hasNext() {
+                return resourceIterator.hasNext();
+            }
+
+            @Override
+            public Container next() {
+                return new Container<>(resourceIterator.next(), requestParams);
+            }
+        };
+    }
+}
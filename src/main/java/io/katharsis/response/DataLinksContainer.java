@@ -23,10 +23,22 @@ import java.util.Set;
 public class DataLinksContainer {
     private final Object data;
     private final Set<Field> relationshipFields;
+    private final ResourceSerializationContext serializationContext;
 
     public DataLinksContainer(Object data, Set<Field> relationshipFields) {
+        this(data, relationshipFields, null);
+    }
+
+    /**
+     * @param data                 resource instance
+     * @param relationshipFields   relationship fields of the resource
+     * @param serializationContext values of the resource resolved by the resource's serializer, can be <i>null</i>.
+     *                             It is derived from <i>data</i>, so it's not used in {@link #equals(Object)}.
+     */
+    public DataLinksContainer(Object data, Set<Field> relationshipFields, ResourceSerializationContext serializationContext) {
         this.data = data;
         this.relationshipFields = relationshipFields;
+        this.serializationContext = serializationContext;
     }
 
     public Object getData() {
@@ -37,6 +49,10 @@ public class DataLinksContainer {
         return relationshipFields;
     }
 
+    public ResourceSerializationContext getSerializationContext() {
+        return serializationContext;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,149 @@
+package io.katharsis.response;
+
+import io.katharsis.queryParams.IncludePath;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.resource.registry.RegistryEntry;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Holds values of a single resource which are used by several serializers: the id written as a string, the URL of
+ * the resource, the parameters of the request and the nodes of the include tree which lead to the resource. They are
+ * resolved once, when the resource is serialized, and shared with the serializers of its links and relationships.
+ */
+public final class ResourceSerializationContext {
+
+    private final String id;
+    private final String selfUrl;
+    private final RequestParams requestParams;
+    private final Collection<IncludePath> includePaths;
+
+    public ResourceSerializationContext(String id, String selfUrl) {
+        this(id, selfUrl, null);
+    }
+
+    public ResourceSerializationContext(String id, String selfUrl, RequestParams requestParams) {
+        this(id, selfUrl, requestParams, Collections.<IncludePath>emptyList());
+    }
+
+    public ResourceSerializationContext(String id, String selfUrl, RequestParams requestParams,
+                                        Collection<IncludePath> includePaths) {
+        this.id = id;
+        this.selfUrl = selfUrl;
+        this.requestParams = requestParams;
+        this.includePaths = includePaths;
+    }
+
+    /**
+     * Reads the id of a resource and builds the resource's URL.
+     *
+     * @param data        resource instance
+     * @param entry       registry entry of the resource
+     * @param resourceUrl URL of the resource's collection
+     * @return context of the resource
+     * @throws IllegalAccessException    if the id cannot be read
+     * @throws InvocationTargetException if the id getter throws an exception
+     * @throws NoSuchMethodException     if there is no id getter
+     */
+    public static ResourceSerializationContext create(Object data, RegistryEntry<?> entry, String resourceUrl)
+            throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        return create(data, entry, resourceUrl, null);
+    }
+
+    /**
+     * Reads the id of a resource and builds the resource's URL.
+     *
+     * @param data          resource instance
+     * @param entry         registry entry of the resource
+     * @param resourceUrl   URL of the resource's collection
+     * @param requestParams parameters of the request the resource is returned for, can be <i>null</i>
+     * @return context of the resource
+     * @throws IllegalAccessException    if the id cannot be read
+     * @throws InvocationTargetException if the id getter throws an exception
+     * @throws NoSuchMethodException     if there is no id getter
+     */
+    public static ResourceSerializationContext create(Object data, RegistryEntry<?> entry, String resourceUrl,
+                                                      RequestParams requestParams)
+            throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        return create(data, entry, resourceUrl, requestParams, Collections.<IncludePath>emptyList());
+    }
+
+    /**
+     * Reads the id of a resource and builds the resource's URL.
+     *
+     * @param data          resource instance
+     * @param entry         registry entry of the resource
+     * @param resourceUrl   URL of the resource's collection
+     * @param requestParams parameters of the request the resource is returned for, can be <i>null</i>
+     * @param includePaths  nodes of the include tree which lead to the resource
+     * @return context of the resource
+     * @throws IllegalAccessException    if the id cannot be read
+     * @throws InvocationTargetException if the id getter throws an exception
+     * @throws NoSuchMethodException     if there is no id getter
+     */
+    public static ResourceSerializationContext create(Object data, RegistryEntry<?> entry, String resourceUrl,
+                                                      RequestParams requestParams,
+                                                      Collection<IncludePath> includePaths)
+            throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        String id = toIdString(entry.getResourceInformation().getIdAccessor().getValue(data));
+        return new ResourceSerializationContext(id, resourceUrl + "/" + id, requestParams, includePaths);
+    }
+
+    /**
+     * Converts an id to a string. The most common id types are converted without a virtual call.
+     *
+     * @param id value of an id field
+     * @return string representation of the id or <i>null</i> if the id is <i>null</i>
+     */
+    public static String toIdString(Object id) {
+        if (id == null) {
+            return null;
+        } else if (id instanceof String) {
+            return (String) id;
+        } else if (id instanceof Long) {
+            return Long.toString((Long) id);
+        } else if (id instanceof Integer) {
+            return Integer.toString((Integer) id);
+        } else if (id instanceof UUID) {
+            return ((UUID) id).toString();
+        }
+        return id.toString();
+    }
+
+    /**
+     * @return id of the resource as a string
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return URL of the resource, i.e. <i>resourceUrl/id</i>
+     */
+    public String getSelfUrl() {
+        return selfUrl;
+    }
+
+    /**
+     * @return parameters of the request the resource is returned for, can be <i>null</i>
+     */
+    public RequestParams getRequestParams() {
+        return requestParams;
+    }
+
+    /**
+     * @param relationshipName name of a relationship of the resource in JSON documents
+     * @return true if any of the include paths which lead to the resource continues with the relationship
+     */
+    public boolean isIncluded(String relationshipName) {
+        for (IncludePath includePath : includePaths) {
+            if (includePath.getChild(relationshipName) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
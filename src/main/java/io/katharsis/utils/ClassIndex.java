@@ -0,0 +1,255 @@
+package io.katharsis.utils;
+
+import io.katharsis.resource.exception.init.InvalidResourceException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads index files generated at compile time by {@link io.katharsis.processor.ResourceIndexProcessor}. Each file
+ * lists fully qualified binary names of classes, one per line. All of the files with the same location on the
+ * classpath are merged. An indexed location replaces a classpath scan only of the packages listed in {@link #PACKAGES}
+ * of every classpath root which contains them, all other packages are still scanned.
+ */
+public final class ClassIndex {
+
+    /**
+     * Classes annotated with {@link io.katharsis.resource.annotations.JsonApiResource}.
+     */
+    public static final String RESOURCES = "META-INF/katharsis/resources";
+
+    /**
+     * Subtypes of {@link io.katharsis.repository.ResourceRepository}.
+     */
+    public static final String RESOURCE_REPOSITORIES = "META-INF/katharsis/resource-repositories";
+
+    /**
+     * Subtypes of {@link io.katharsis.repository.RelationshipRepository}.
+     */
+    public static final String RELATIONSHIP_REPOSITORIES = "META-INF/katharsis/relationship-repositories";
+
+    /**
+     * Classes annotated with {@link io.katharsis.errorhandling.mapper.ExceptionMapperProvider}.
+     */
+    public static final String EXCEPTION_MAPPERS = "META-INF/katharsis/exception-mappers";
+
+    /**
+     * Implementations of {@link io.katharsis.dispatcher.controller.BaseController} shipped with Katharsis. The location
+     * is always complete and doesn't need {@link #PACKAGES}.
+     */
+    public static final String CONTROLLERS = "META-INF/katharsis/controllers";
+
+    /**
+     * Packages whose classes in the same classpath root, including classes of their subpackages, are all listed in the
+     * other index files of the root.
+     */
+    public static final String PACKAGES = "META-INF/katharsis/packages";
+
+    private static final String[] LOCATIONS = {RESOURCES, RESOURCE_REPOSITORIES, RELATIONSHIP_REPOSITORIES,
+            EXCEPTION_MAPPERS, CONTROLLERS, PACKAGES};
+    private static final char COMMENT_CHAR = '#';
+
+    private final ClassLoader classLoader;
+    private final Map<String, Set<String>> classNames;
+
+    /**
+     * Locations of the index files found in each classpath root.
+     */
+    private final Map<String, Set<String>> rootLocations;
+
+    /**
+     * Packages listed in {@link #PACKAGES} of each classpath root.
+     */
+    private final Map<String, Set<String>> rootPackages;
+
+    private ClassIndex(ClassLoader classLoader, Map<String, Set<String>> classNames,
+                       Map<String, Set<String>> rootLocations, Map<String, Set<String>> rootPackages) {
+        this.classLoader = classLoader;
+        this.classNames = classNames;
+        this.rootLocations = rootLocations;
+        this.rootPackages = rootPackages;
+    }
+
+    /**
+     * Loads the index using the context class loader of the current thread.
+     *
+     * @return loaded index
+     */
+    public static ClassIndex load() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return load(classLoader != null ? classLoader : ClassIndex.class.getClassLoader());
+    }
+
+    /**
+     * Loads and merges all of the index files visible to a class loader. Classpath roots the files come from are
+     * recorded, so a package can be checked to be indexed in each of them.
+     *
+     * @param classLoader class loader used to find index files and load indexed classes
+     * @return loaded index, possibly without any of the locations
+     */
+    public static ClassIndex load(ClassLoader classLoader) {
+        Map<String, Set<String>> classNames = new HashMap<>();
+        Map<String, Set<String>> rootLocations = new HashMap<>();
+        Map<String, Set<String>> rootPackages = new HashMap<>();
+        try {
+            for (String location : LOCATIONS) {
+                Enumeration<URL> urls = classLoader.getResources(location);
+                while (urls.hasMoreElements()) {
+                    URL url = urls.nextElement();
+                    Set<String> names = readClassNames(url);
+                    classNames.computeIfAbsent(location, key -> new LinkedHashSet<>()).addAll(names);
+                    String root = getRoot(url, location);
+                    if (root == null) {
+                        continue;
+                    }
+                    rootLocations.computeIfAbsent(root, key -> new HashSet<>()).add(location);
+                    if (PACKAGES.equals(location)) {
+                        rootPackages.computeIfAbsent(root, key -> new HashSet<>()).addAll(names);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new InvalidResourceException("Cannot read class index: " + e.getMessage());
+        }
+        return new ClassIndex(classLoader, classNames, rootLocations, rootPackages);
+    }
+
+    private static Set<String> readClassNames(URL url) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        try (InputStream inputStream = url.openStream();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && line.charAt(0) != COMMENT_CHAR) {
+                    names.add(line);
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the classpath root of a resource, e.g. <i>jar:file:/app.jar!/</i> for
+     * <i>jar:file:/app.jar!/com/app</i>, or <i>null</i> if the URL doesn't end with the path.
+     */
+    private static String getRoot(URL url, String path) {
+        String externalForm = url.toExternalForm();
+        if (externalForm.endsWith("/")) {
+            externalForm = externalForm.substring(0, externalForm.length() - 1);
+        }
+        if (!externalForm.endsWith(path)) {
+            return null;
+        }
+        return externalForm.substring(0, externalForm.length() - path.length());
+    }
+
+    /**
+     * @param location index file location
+     * @return true if there's at least one index file at the location
+     */
+    public boolean contains(String location) {
+        return classNames.containsKey(location);
+    }
+
+    /**
+     * A package is indexed for a location if every classpath root which contains the package has an index file at
+     * the location and lists the package or one of its parent packages in {@link #PACKAGES}. A root built without the
+     * annotation processor makes the package not indexed, so it is scanned even if other roots index it.
+     *
+     * @param location    index file location
+     * @param packageName package name, empty for all classes
+     * @return true if the index contains all classes of the package
+     */
+    public boolean isIndexed(String location, String packageName) {
+        if (packageName.isEmpty()) {
+            return false;
+        }
+        boolean indexed = false;
+        for (String root : rootPackages.keySet()) {
+            indexed |= isIndexedInRoot(root, location, packageName);
+        }
+        if (!indexed) {
+            return false;
+        }
+        String packagePath = packageName.replace('.', '/');
+        try {
+            Enumeration<URL> urls = classLoader.getResources(packagePath);
+            while (urls.hasMoreElements()) {
+                String root = getRoot(urls.nextElement(), packagePath);
+                if (root == null || !isIndexedInRoot(root, location, packageName)) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            throw new InvalidResourceException("Cannot find package " + packageName + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    private boolean isIndexedInRoot(String root, String location, String packageName) {
+        Set<String> locations = rootLocations.get(root);
+        Set<String> packages = rootPackages.get(root);
+        if (locations == null || packages == null || !locations.contains(location)) {
+            return false;
+        }
+        for (String indexedPackage : packages) {
+            if (isInPackage(packageName, indexedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns indexed classes from a package and its subpackages, the same as a classpath scan of the package does.
+     *
+     * @param location    index file location
+     * @param packageName package name, empty for all classes
+     * @param type        supertype of all the classes in the index file
+     * @param <T>         supertype of all the classes in the index file
+     * @return indexed classes
+     */
+    public <T> Set<Class<? extends T>> getClasses(String location, String packageName, Class<T> type) {
+        Set<String> names = classNames.get(location);
+        if (names == null) {
+            return Collections.emptySet();
+        }
+        Set<Class<? extends T>> classes = new LinkedHashSet<>();
+        for (String name : names) {
+            if (isInPackage(name, packageName)) {
+                classes.add(loadClass(location, name).asSubclass(type));
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @param name        class or package name
+     * @param packageName package name, empty for all classes
+     * @return true if the name is the package itself or belongs to the package or one of its subpackages
+     */
+    static boolean isInPackage(String name, String packageName) {
+        return packageName.isEmpty() || name.equals(packageName)
+                || (name.startsWith(packageName) && name.charAt(packageName.length()) == '.');
+    }
+
+    private Class<?> loadClass(String location, String name) {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new InvalidResourceException("Class " + name + " listed in " + location + " cannot be found");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.katharsis.utils;
+
+import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.errorhandling.mapper.ExceptionMapperProvider;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.annotations.JsonApiResource;
+import org.reflections.Reflections;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds resources, repositories, exception mappers and controllers for all of the registry builders. Classes are
+ * taken from the {@link ClassIndex} if every classpath root which contains the requested package indexes it.
+ * Otherwise the classpath is scanned, once for all of the packages and all of the builders, when the first not
+ * indexed package is requested.
+ * <p>
+ * The controllers shipped with Katharsis are always indexed.
+ */
+public class ClassScanner {
+
+    /**
+     * Package which contains Katharsis controllers.
+     */
+    public static final String CONTROLLERS_PACKAGE = "io.katharsis.dispatcher.controller";
+
+    private static final Map<Class<?>, String> INDEX_LOCATIONS = new HashMap<>();
+
+    static {
+        INDEX_LOCATIONS.put(JsonApiResource.class, ClassIndex.RESOURCES);
+        INDEX_LOCATIONS.put(ResourceRepository.class, ClassIndex.RESOURCE_REPOSITORIES);
+        INDEX_LOCATIONS.put(RelationshipRepository.class, ClassIndex.RELATIONSHIP_REPOSITORIES);
+        INDEX_LOCATIONS.put(ExceptionMapperProvider.class, ClassIndex.EXCEPTION_MAPPERS);
+        INDEX_LOCATIONS.put(BaseController.class, ClassIndex.CONTROLLERS);
+    }
+
+    private final List<String> packageNames;
+    private final ClassIndex classIndex;
+    private Reflections reflections;
+
+    /**
+     * @param packageNames packages which contain resources, repositories and exception mappers
+     */
+    public ClassScanner(String... packageNames) {
+        this(ClassIndex.load(), packageNames);
+    }
+
+    public ClassScanner(ClassIndex classIndex, String... packageNames) {
+        this.classIndex = classIndex;
+        this.packageNames = Collections.unmodifiableList(Arrays.asList(packageNames));
+    }
+
+    /**
+     * Returns classes annotated with an annotation, from a package and its subpackages.
+     *
+     * @param annotation  {@link JsonApiResource} or {@link ExceptionMapperProvider}
+     * @param packageName one of the packages passed to the constructor or its subpackage
+     * @return annotated classes
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation, String packageName) {
+        String location = INDEX_LOCATIONS.get(annotation);
+        if (isIndexed(location, packageName)) {
+            return classIndex.getClasses(location, packageName, Object.class);
+        }
+        return filterByPackage(getReflections(packageName).getTypesAnnotatedWith(annotation), packageName);
+    }
+
+    /**
+     * Returns subtypes of a type, from a package and its subpackages.
+     *
+     * @param type        a repository interface or {@link BaseController}
+     * @param packageName one of the packages passed to the constructor or its subpackage, or
+     *                    {@link #CONTROLLERS_PACKAGE}
+     * @param <T>         supertype
+     * @return subtypes of the type
+     */
+    public <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type, String packageName) {
+        String location = INDEX_LOCATIONS.get(type);
+        if (isIndexed(location, packageName)) {
+            return classIndex.getClasses(location, packageName, type);
+        }
+        return filterByPackage(getReflections(packageName).getSubTypesOf(type), packageName);
+    }
+
+    private boolean isIndexed(String location, String packageName) {
+        if (ClassIndex.CONTROLLERS.equals(location)) {
+            return classIndex.contains(location);
+        }
+        return location != null && classIndex.isIndexed(location, packageName);
+    }
+
+    private synchronized Reflections getReflections(String packageName) {
+        if (!isScanned(packageName)) {
+            throw new IllegalArgumentException("Package " + packageName + " is not included in the scanned packages: "
+                    + packageNames);
+        }
+        if (reflections == null) {
+            Set<String> scannedPackages = new LinkedHashSet<>(packageNames);
+            scannedPackages.add(CONTROLLERS_PACKAGE);
+            reflections = new Reflections(scannedPackages.toArray());
+        }
+        return reflections;
+    }
+
+    private boolean isScanned(String packageName) {
+        if (ClassIndex.isInPackage(packageName, CONTROLLERS_PACKAGE)) {
+            return true;
+        }
+        for (String scannedPackage : packageNames) {
+            if (ClassIndex.isInPackage(packageName, scannedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <C extends Class<?>> Set<C> filterByPackage(Set<C> classes, String packageName) {
+        Set<C> filteredClasses = new LinkedHashSet<>();
+        for (C clazz : classes) {
+            if (ClassIndex.isInPackage(clazz.getName(), packageName)) {
+                filteredClasses.add(clazz);
+            }
+        }
+        return filteredClasses;
+    }
+}
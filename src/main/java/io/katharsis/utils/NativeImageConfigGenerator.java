@@ -0,0 +1,363 @@
+package io.katharsis.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.registry.ControllerRegistry;
+import io.katharsis.dispatcher.registry.ControllerRegistryBuilder;
+import io.katharsis.errorhandling.ErrorData;
+import io.katharsis.errorhandling.mapper.ExceptionMapperRegistry;
+import io.katharsis.errorhandling.mapper.ExceptionMapperRegistryBuilder;
+import io.katharsis.locator.JsonServiceLocator;
+import io.katharsis.request.dto.Attributes;
+import io.katharsis.request.dto.DataBody;
+import io.katharsis.request.dto.Linkage;
+import io.katharsis.request.dto.RequestBody;
+import io.katharsis.request.dto.ResourceRelationships;
+import io.katharsis.resource.AttributeInfo;
+import io.katharsis.resource.RelationshipInfo;
+import io.katharsis.resource.ResourceInformation;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryBuilder;
+import io.katharsis.response.builder.ResponseBuilder;
+import io.katharsis.utils.parser.TypeParser;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Generates configuration of GraalVM native-image from built registries. It writes <i>reflect-config.json</i> with
+ * all of the resources, repositories, controllers, exception mappers and request and response documents which Katharsis
+ * accesses reflectively, and <i>resource-config.json</i> with the {@link ClassIndex} files. The class index itself is
+ * written as well, so the native image finds the classes without a classpath scan.
+ * <p>
+ * The generator is meant to be run at build time, e.g.
+ * <i>java io.katharsis.utils.NativeImageConfigGenerator com.example.resources target/classes</i>. Repositories are
+ * not instantiated while the registry is built.
+ */
+public class NativeImageConfigGenerator {
+
+    /**
+     * Directory of the generated native-image configuration, relative to the output directory. The scanned package
+     * is appended so configurations of several applications don't collide.
+     */
+    public static final String NATIVE_IMAGE_DIRECTORY = "META-INF/native-image";
+
+    private static final List<Class<?>> DOCUMENT_CLASSES = Collections.unmodifiableList(Arrays.asList(
+            RequestBody.class, DataBody.class, Attributes.class, Linkage.class, ResourceRelationships.class,
+            ErrorData.class, ResponseBuilder.TopLevelJson.class));
+    private static final List<String> INDEX_LOCATIONS = Collections.unmodifiableList(Arrays.asList(
+            ClassIndex.RESOURCES, ClassIndex.RESOURCE_REPOSITORIES, ClassIndex.RELATIONSHIP_REPOSITORIES,
+            ClassIndex.EXCEPTION_MAPPERS, ClassIndex.CONTROLLERS, ClassIndex.PACKAGES));
+
+    private final ResourceRegistry resourceRegistry;
+    private final ControllerRegistry controllerRegistry;
+    private final ExceptionMapperRegistry exceptionMapperRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public NativeImageConfigGenerator(ResourceRegistry resourceRegistry, ControllerRegistry controllerRegistry,
+                                      ExceptionMapperRegistry exceptionMapperRegistry) {
+        this.resourceRegistry = resourceRegistry;
+        this.controllerRegistry = controllerRegistry;
+        this.exceptionMapperRegistry = exceptionMapperRegistry;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: " + NativeImageConfigGenerator.class.getName()
+                    + " <resource package> <output directory>");
+        }
+        String packageName = args[0];
+        ClassScanner classScanner = new ClassScanner(packageName);
+        ResourceRegistry resourceRegistry = new ResourceRegistryBuilder(new NoRepositoryServiceLocator(),
+                new ResourceInformationBuilder()).withLazyRepositories().build(classScanner, packageName, "");
+        ControllerRegistry controllerRegistry = new ControllerRegistryBuilder()
+                .build(classScanner, resourceRegistry, new TypeParser());
+        ExceptionMapperRegistry exceptionMapperRegistry = new ExceptionMapperRegistryBuilder()
+                .build(classScanner, packageName);
+
+        new NativeImageConfigGenerator(resourceRegistry, controllerRegistry, exceptionMapperRegistry)
+                .write(Paths.get(args[1]), packageName);
+    }
+
+    /**
+     * Writes the native-image configuration to <i>META-INF/native-image/&lt;name&gt;</i> and the class index to
+     * <i>META-INF/katharsis</i> of the output directory.
+     *
+     * @param outputDirectory root of the classpath, e.g. a resources or classes directory
+     * @param packageName     scanned resource package, also the name of the configuration directory
+     * @throws IOException if a file cannot be written
+     */
+    public void write(Path outputDirectory, String packageName) throws IOException {
+        Path configDirectory = outputDirectory.resolve(NATIVE_IMAGE_DIRECTORY).resolve(packageName);
+        Files.createDirectories(configDirectory);
+        objectMapper.writeValue(configDirectory.resolve("reflect-config.json").toFile(), createReflectConfig());
+        objectMapper.writeValue(configDirectory.resolve("resource-config.json").toFile(), createResourceConfig());
+        writeClassIndex(outputDirectory, packageName);
+    }
+
+    /**
+     * Resources and the targets of their relationships are added with all of their members, attribute values with
+     * their fields, constructors and public methods.
+     *
+     * @return entries of <i>reflect-config.json</i> sorted by class name
+     */
+    public List<Map<String, Object>> createReflectConfig() {
+        Map<String, Map<String, Object>> entries = new TreeMap<>();
+        Set<Class<?>> visitedTypes = new HashSet<>();
+        for (RegistryEntry<?> registryEntry : resourceRegistry.getSnapshot().getEntries().values()) {
+            ResourceInformation resourceInformation = registryEntry.getResourceInformation();
+            addResourceEntries(entries, resourceInformation.getResourceClass());
+            Class<?> idType = resourceInformation.getIdField().getType();
+            if (!isJdkClass(idType)) {
+                addEntry(entries, idType, "allDeclaredConstructors", "allPublicMethods");
+            }
+            for (AttributeInfo attributeInfo : resourceInformation.getAttributeInfos()) {
+                addValueEntries(entries, attributeInfo.getField().getGenericType(), visitedTypes);
+            }
+            for (RelationshipInfo relationshipInfo : resourceInformation.getRelationshipInfos()) {
+                addResourceEntries(entries, relationshipInfo.getTargetClass());
+            }
+            addRepositoryEntry(entries, registryEntry.getResourceRepositoryClass());
+            for (Class<?> relationshipRepositoryClass : registryEntry.getRelationshipRepositoryClasses()) {
+                addRepositoryEntry(entries, relationshipRepositoryClass);
+            }
+        }
+        for (BaseController controller : controllerRegistry.getControllers()) {
+            addEntry(entries, controller.getClass(), "allDeclaredConstructors");
+        }
+        for (Class<?> exceptionMapperClass : exceptionMapperRegistry.getExceptionMapperClasses()) {
+            addEntry(entries, exceptionMapperClass, "allDeclaredConstructors", "allPublicMethods");
+        }
+        for (Class<?> documentClass : DOCUMENT_CLASSES) {
+            addEntry(entries, documentClass, "allDeclaredFields", "allDeclaredConstructors", "allPublicMethods");
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private static void addResourceEntries(Map<String, Map<String, Object>> entries, Class<?> resourceClass) {
+        for (Class<?> clazz = resourceClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            addEntry(entries, clazz, "allDeclaredFields", "allDeclaredConstructors", "allDeclaredMethods",
+                    "allPublicMethods");
+        }
+    }
+
+    /**
+     * Adds classes which Jackson reads or writes as attribute values. The type is walked through its type arguments,
+     * array components and wildcard bounds, so element types of collections and maps are added too, and through the
+     * fields of the added classes. JDK classes are skipped. Values whose runtime class is only a subclass of the
+     * declared type, e.g. an implementation of an interface, cannot be found this way and have to be configured by
+     * hand.
+     */
+    private static void addValueEntries(Map<String, Map<String, Object>> entries, Type type,
+                                        Set<Class<?>> visitedTypes) {
+        if (type instanceof ParameterizedType) {
+            addValueEntries(entries, ((ParameterizedType) type).getRawType(), visitedTypes);
+            for (Type typeArgument : ((ParameterizedType) type).getActualTypeArguments()) {
+                addValueEntries(entries, typeArgument, visitedTypes);
+            }
+        } else if (type instanceof GenericArrayType) {
+            addValueEntries(entries, ((GenericArrayType) type).getGenericComponentType(), visitedTypes);
+        } else if (type instanceof WildcardType) {
+            for (Type upperBound : ((WildcardType) type).getUpperBounds()) {
+                addValueEntries(entries, upperBound, visitedTypes);
+            }
+        } else if (type instanceof TypeVariable) {
+            for (Type bound : ((TypeVariable<?>) type).getBounds()) {
+                addValueEntries(entries, bound, visitedTypes);
+            }
+        } else if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isArray()) {
+                addValueEntries(entries, clazz.getComponentType(), visitedTypes);
+            } else if (!isJdkClass(clazz) && visitedTypes.add(clazz)) {
+                addEntry(entries, clazz, "allDeclaredFields", "allDeclaredConstructors", "allPublicMethods");
+                for (Class<?> superclass = clazz; superclass != null && superclass != Object.class;
+                     superclass = superclass.getSuperclass()) {
+                    for (Field field : superclass.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            addValueEntries(entries, field.getGenericType(), visitedTypes);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> clazz) {
+        return clazz.isPrimitive() || clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.");
+    }
+
+    private static void addRepositoryEntry(Map<String, Map<String, Object>> entries, Class<?> repositoryClass) {
+        if (repositoryClass != null) {
+            addEntry(entries, repositoryClass, "allDeclaredConstructors", "allPublicMethods");
+        }
+    }
+
+    private static void addEntry(Map<String, Map<String, Object>> entries, Class<?> clazz, String... flags) {
+        Map<String, Object> entry = entries.computeIfAbsent(clazz.getName(), name -> {
+            Map<String, Object> newEntry = new LinkedHashMap<>();
+            newEntry.put("name", name);
+            return newEntry;
+        });
+        for (String flag : flags) {
+            entry.put(flag, true);
+        }
+    }
+
+    /**
+     * @return content of <i>resource-config.json</i> which includes the class index files
+     */
+    public Map<String, Object> createResourceConfig() {
+        List<Map<String, String>> includes = new ArrayList<>();
+        for (String location : INDEX_LOCATIONS) {
+            includes.add(Collections.singletonMap("pattern", "\\Q" + location + "\\E"));
+        }
+        Map<String, Object> resourceConfig = new LinkedHashMap<>();
+        resourceConfig.put("resources", Collections.singletonMap("includes", includes));
+        return resourceConfig;
+    }
+
+    /**
+     * Writes {@link ClassIndex} files of the registered classes, so {@link ClassScanner} doesn't scan the classpath.
+     * The controllers index is shipped with Katharsis and is not written. Entries of existing index files, e.g. written
+     * by {@link io.katharsis.processor.ResourceIndexProcessor}, are kept unless their classes no longer exist.
+     * <p>
+     * The package is listed as indexed only if the output directory is a classpath root which contains the package,
+     * so the scan which built the registries has seen all of its classes there. Other roots keep being scanned.
+     *
+     * @param outputDirectory root of the classpath
+     * @param packageName     scanned resource package
+     * @throws IOException if a file cannot be written
+     */
+    public void writeClassIndex(Path outputDirectory, String packageName) throws IOException {
+        Set<String> resources = new TreeSet<>();
+        Set<String> resourceRepositories = new TreeSet<>();
+        Set<String> relationshipRepositories = new TreeSet<>();
+        for (RegistryEntry<?> registryEntry : resourceRegistry.getSnapshot().getEntries().values()) {
+            resources.add(registryEntry.getResourceInformation().getResourceClass().getName());
+            if (registryEntry.getResourceRepositoryClass() != null) {
+                resourceRepositories.add(registryEntry.getResourceRepositoryClass().getName());
+            }
+            for (Class<?> relationshipRepositoryClass : registryEntry.getRelationshipRepositoryClasses()) {
+                relationshipRepositories.add(relationshipRepositoryClass.getName());
+            }
+        }
+        Set<String> exceptionMappers = new TreeSet<>();
+        for (Class<?> exceptionMapperClass : exceptionMapperRegistry.getExceptionMapperClasses()) {
+            exceptionMappers.add(exceptionMapperClass.getName());
+        }
+
+        ClassLoader classLoader = getClassLoader();
+        writeIndexFile(outputDirectory, ClassIndex.RESOURCES, resources, classLoader);
+        writeIndexFile(outputDirectory, ClassIndex.RESOURCE_REPOSITORIES, resourceRepositories, classLoader);
+        writeIndexFile(outputDirectory, ClassIndex.RELATIONSHIP_REPOSITORIES, relationshipRepositories, classLoader);
+        writeIndexFile(outputDirectory, ClassIndex.EXCEPTION_MAPPERS, exceptionMappers, classLoader);
+        Set<String> packages = new TreeSet<>();
+        if (isScannedRoot(outputDirectory, packageName, classLoader)) {
+            packages.add(packageName);
+        }
+        writeIndexFile(outputDirectory, ClassIndex.PACKAGES, packages, classLoader);
+    }
+
+    private static ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : NativeImageConfigGenerator.class.getClassLoader();
+    }
+
+    /**
+     * Checks if the output directory is one of the classpath roots which contain the package.
+     */
+    private static boolean isScannedRoot(Path outputDirectory, String packageName, ClassLoader classLoader)
+            throws IOException {
+        Path packageDirectory = outputDirectory.resolve(packageName.replace('.', '/')).toAbsolutePath().normalize();
+        Enumeration<URL> urls = classLoader.getResources(packageName.replace('.', '/'));
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            if ("file".equals(url.getProtocol())) {
+                try {
+                    if (Paths.get(url.toURI()).toAbsolutePath().normalize().equals(packageDirectory)) {
+                        return true;
+                    }
+                } catch (URISyntaxException e) {
+                    // not a directory root
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes an index file merged with the entries of an existing file. Entries of classes which cannot be found are
+     * dropped.
+     */
+    private static void writeIndexFile(Path outputDirectory, String location, Set<String> entries,
+                                       ClassLoader classLoader) throws IOException {
+        Path file = outputDirectory.resolve(location);
+        Set<String> mergedEntries = new TreeSet<>(entries);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (!line.isEmpty() && line.charAt(0) != '#'
+                        && (ClassIndex.PACKAGES.equals(location) || exists(line, classLoader))) {
+                    mergedEntries.add(line);
+                }
+            }
+        }
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String entry : mergedEntries) {
+                writer.write(entry);
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static boolean exists(String className, ClassLoader classLoader) {
+        try {
+            Class.forName(className, false, classLoader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Repositories are resolved lazily and are never needed to generate the configuration, so requesting one is an
+     * error.
+     */
+    private static final class NoRepositoryServiceLocator implements JsonServiceLocator {
+
+        @Override
+        public <T> T getInstance(Class<T> clazz) {
+            throw new IllegalStateException("Repository " + clazz.getName()
+                    + " must not be created while the native-image configuration is generated");
+        }
+    }
+}
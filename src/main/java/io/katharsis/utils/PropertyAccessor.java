@@ -0,0 +1,138 @@
+package io.katharsis.utils;
+
+import io.katharsis.resource.exception.init.InvalidResourceException;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes a bean property using method handles which are resolved once. Properties are found in the same
+ * way as in commons-beanutils, but no introspection is done when a property is accessed.
+ * <p>
+ * Accessing a property never throws {@link IllegalAccessException}, because inaccessible methods have no handle and
+ * are reported as missing. The exception is still declared because the callers, e.g. the serializers, catch it
+ * together with the other reflection exceptions, and a catch clause of a checked exception which cannot be thrown
+ * doesn't compile.
+ */
+public final class PropertyAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String name;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private PropertyAccessor(String name, MethodHandle getter, MethodHandle setter) {
+        this.name = name;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Creates accessors for all of the properties of a class.
+     *
+     * @param beanClass class to be introspected
+     * @return accessors indexed by property name
+     */
+    public static Map<String, PropertyAccessor> forClass(Class<?> beanClass) {
+        PropertyDescriptor[] propertyDescriptors;
+        try {
+            propertyDescriptors = Introspector.getBeanInfo(beanClass).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new InvalidResourceException("Cannot introspect class " + beanClass.getCanonicalName() + ": " + e.getMessage());
+        }
+        Map<String, PropertyAccessor> accessors = new HashMap<>();
+        for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
+            String name = propertyDescriptor.getName();
+            accessors.put(name, new PropertyAccessor(name,
+                    unreflect(propertyDescriptor.getReadMethod(), GETTER_TYPE),
+                    unreflect(propertyDescriptor.getWriteMethod(), SETTER_TYPE)));
+        }
+        return accessors;
+    }
+
+    /**
+     * Creates an accessor for a property which cannot be read nor written. Accessing it throws
+     * {@link NoSuchMethodException} as commons-beanutils does for unknown properties.
+     *
+     * @param name name of the property
+     * @return accessor without getter and setter
+     */
+    public static PropertyAccessor missing(String name) {
+        return new PropertyAccessor(name, null, null);
+    }
+
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        if (method == null) {
+            return null;
+        }
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException e) {
+            // public methods of inaccessible classes can still be unreflected if the class is exported
+        }
+        try {
+            return LOOKUP.unreflect(method).asType(type);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Reads the value of the property.
+     *
+     * @param bean bean instance
+     * @return value of the property
+     * @throws IllegalAccessException    never, see the class description
+     * @throws InvocationTargetException if the getter throws an exception
+     * @throws NoSuchMethodException     if there is no getter for the property
+     */
+    public Object getValue(Object bean) throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        if (getter == null) {
+            throw new NoSuchMethodException("Unknown property '" + name + "' on class '" + bean.getClass() + "'");
+        }
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Writes the value of the property.
+     *
+     * @param bean  bean instance
+     * @param value new value of the property
+     * @throws IllegalAccessException    never, see the class description
+     * @throws InvocationTargetException if the setter throws an exception or the value is of a wrong type
+     * @throws NoSuchMethodException     if there is no setter for the property
+     */
+    public void setValue(Object bean, Object value) throws IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+        if (setter == null) {
+            throw new NoSuchMethodException("Property '" + name + "' has no setter method in class '" + bean.getClass() + "'");
+        }
+        try {
+            setter.invokeExact(bean, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
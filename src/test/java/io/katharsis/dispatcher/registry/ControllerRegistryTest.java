@@ -1,6 +1,12 @@
 package io.katharsis.dispatcher.registry;
 
+import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.resource.FieldResourceGet;
+import io.katharsis.dispatcher.controller.resource.RelationshipsResourceGet;
+import io.katharsis.dispatcher.controller.resource.ResourceGet;
 import io.katharsis.locator.SampleJsonServiceLocator;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathBuilder;
 import io.katharsis.resource.ResourceInformationBuilder;
@@ -8,11 +14,16 @@ import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.resource.registry.ResourceRegistryBuilder;
 import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
 import io.katharsis.resource.registry.ResourceRegistryTest;
+import io.katharsis.response.BaseResponse;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class ControllerRegistryTest {
 
     private ResourceRegistry resourceRegistry;
@@ -40,4 +51,65 @@ public class ControllerRegistryTest {
         // WHEN
         sut.getController(jsonPath, requestType);
     }
+
+    @Test
+    public void onRelationshipsRequestShouldReturnRoutedController() throws Exception {
+        // GIVEN
+        PathBuilder pathBuilder = new PathBuilder(resourceRegistry);
+        JsonPath jsonPath = pathBuilder.buildPath("/tasks/1/relationships/project");
+        ControllerRegistry sut = new ControllerRegistryBuilder().build(resourceRegistry, null);
+
+        // WHEN
+        BaseController controller = sut.getController(jsonPath, "GET");
+
+        // THEN
+        assertThat(controller).isExactlyInstanceOf(RelationshipsResourceGet.class);
+        assertThat(sut.getController(pathBuilder.buildPath("/tasks/1/project"), "GET"))
+                .isExactlyInstanceOf(FieldResourceGet.class);
+    }
+
+    @Test
+    public void onControllerWithoutRouteShouldFallBackToAcceptanceCheck() {
+        // GIVEN
+        PathBuilder pathBuilder = new PathBuilder(resourceRegistry);
+        JsonPath jsonPath = pathBuilder.buildPath("/tasks/");
+        BaseController customController = new BaseController() {
+            @Override
+            public boolean isAcceptable(JsonPath jsonPath, String requestType) {
+                return "PUT".equals(requestType);
+            }
+
+            @Override
+            public BaseResponse<?> handle(JsonPath jsonPath, RequestParams requestParams, RequestBody requestBody) {
+                return null;
+            }
+        };
+        ControllerRegistry sut = new ControllerRegistry(Collections.singletonList(customController));
+
+        // WHEN
+        BaseController controller = sut.getController(jsonPath, "PUT");
+
+        // THEN
+        assertThat(controller).isSameAs(customController);
+    }
+
+    @Test
+    public void onSubclassOfRoutedControllerShouldCheckAcceptance() {
+        // GIVEN
+        PathBuilder pathBuilder = new PathBuilder(resourceRegistry);
+        JsonPath jsonPath = pathBuilder.buildPath("/tasks/1");
+        BaseController customController = new ResourceGet(resourceRegistry, null) {
+            @Override
+            public boolean isAcceptable(JsonPath jsonPath, String requestType) {
+                return false;
+            }
+        };
+        ControllerRegistry sut = new ControllerRegistry(Collections.singletonList(customController));
+
+        // THEN
+        expectedException.expect(IllegalStateException.class);
+
+        // WHEN
+        sut.getController(jsonPath, "GET");
+    }
 }
@@ -1,18 +1,31 @@
 package io.katharsis.jackson;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.queryParams.RequestParamsBuilder;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiIncludeByDefault;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.annotations.JsonApiToOne;
 import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import io.katharsis.resource.mock.models.User;
+import io.katharsis.resource.mock.repository.ProjectRepository;
+import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.CollectionResponse;
 import io.katharsis.response.Container;
+import io.katharsis.response.ContainerIterable;
 import io.katharsis.response.ResourceResponse;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
 
@@ -83,6 +96,181 @@ public class BaseResponseSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("data").isArray().ofLength(2);
     }
 
+    @Test
+    public void onCollectionResponseWithSingleUseIterableShouldStreamResources() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(3L);
+        project.setName("Sample project");
+        Task task1 = new Task();
+        task1.setId(1L);
+        task1.setName("Sample task");
+        task1.setProject(project);
+        Task task2 = new Task();
+        task2.setId(2L);
+        task2.setName("Sample task");
+        Iterator<Task> tasks = Arrays.asList(task1, task2).iterator();
+        Iterable<Task> singleUseIterable = () -> tasks;
+
+        // WHEN
+        String result = sut.writeValueAsString(new CollectionResponse(new ContainerIterable(singleUseIterable)));
+
+        // THEN
+        assertThatJson(result).node("data").isArray().ofLength(2);
+        assertThatJson(result).node("data[1].id").isEqualTo("\"2\"");
+        assertThatJson(result).node("included").isArray().ofLength(1);
+        assertThatJson(result).node("included[0].id").isEqualTo("\"3\"");
+    }
+
+    @Test
+    public void onCollectionResponseWithSharedRelatedResourceShouldIncludeItOnce() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(3L);
+        project.setName("Sample project");
+        Task task1 = new Task();
+        task1.setId(1L);
+        task1.setName("Sample task");
+        task1.setProject(project);
+        Task task2 = new Task();
+        task2.setId(2L);
+        task2.setName("Sample task");
+        task2.setProject(project);
+
+        // WHEN
+        String result = sut.writeValueAsString(new CollectionResponse(new ContainerIterable(Arrays.asList(task1, task2))));
+
+        // THEN
+        assertThatJson(result).node("data").isArray().ofLength(2);
+        assertThatJson(result).node("included").isArray().ofLength(1);
+        assertThatJson(result).node("included[0].id").isEqualTo("\"3\"");
+    }
+
+    @Test
+    public void onCollectionResponseWithRelatedResourceInDataShouldNotIncludeIt() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(3L);
+        project.setName("Sample project");
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        task.setProject(project);
+
+        // WHEN
+        String result = sut.writeValueAsString(new CollectionResponse(new ContainerIterable(Arrays.asList(task, project))));
+
+        // THEN
+        assertThatJson(result).node("data").isArray().ofLength(2);
+        assertThatJson(result).node("included").isArray().ofLength(0);
+    }
+
+    @Test
+    public void onIncludeParameterShouldIncludeResourcesLoadedFromRepository() throws Exception {
+        // GIVEN
+        Project storedProject = new Project();
+        storedProject.setName("Stored project");
+        new ProjectRepository().save(storedProject);
+        Project project = new Project();
+        project.setId(storedProject.getId());
+        User user = new User();
+        user.setId(1L);
+        user.setAssignedProjects(Collections.singletonList(project));
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("include", "assignedProjects"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new ResourceResponse(new Container<>(user, requestParams)));
+
+        // THEN
+        assertThatJson(result).node("included").isArray().ofLength(1);
+        assertThatJson(result).node("included[0].attributes.name").isEqualTo("Stored project");
+    }
+
+    @Test
+    public void onIncludeParameterWithRelatedResourceWithAttributesShouldIncludeLoadedResource() throws Exception {
+        // GIVEN
+        Project storedProject = new Project();
+        storedProject.setName("Stored project");
+        new ProjectRepository().save(storedProject);
+        Project project = new Project();
+        project.setId(storedProject.getId());
+        project.setName("Sample project");
+        User user = new User();
+        user.setId(1L);
+        user.setAssignedProjects(Collections.singletonList(project));
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("include", "assignedProjects"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new ResourceResponse(new Container<>(user, requestParams)));
+
+        // THEN
+        assertThatJson(result).node("included").isArray().ofLength(1);
+        assertThatJson(result).node("included[0].attributes.name").isEqualTo("Stored project");
+    }
+
+    @Test
+    public void onIncludeParameterWithMissingResourceShouldIncludeRelatedResource() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(-1L);
+        project.setName("Sample project");
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        task.setProject(project);
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("include", "project"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new CollectionResponse(new ContainerIterable(
+                Collections.singletonList(task), requestParams)));
+
+        // THEN
+        assertThatJson(result).node("included").isArray().ofLength(1);
+        assertThatJson(result).node("included[0].attributes.name").isEqualTo("Sample project");
+    }
+
+    @Test
+    public void onSparseFieldsetShouldNotReadExcludedRelationships() throws Exception {
+        // GIVEN
+        resourceRegistry.addEntry(Milestone.class,
+                new RegistryEntry<>(new ResourceInformationBuilder().build(Milestone.class), null));
+        Milestone milestone = new Milestone();
+        milestone.setId(1L);
+        milestone.setName("Sample milestone");
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("fields[milestones]", "name"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new ResourceResponse(new Container<>(milestone, requestParams)));
+
+        // THEN
+        assertThatJson(result).node("data.attributes.name").isEqualTo("Sample milestone");
+        assertThatJson(result).node("data.relationships.project").isAbsent();
+        assertThatJson(result).node("included").isArray().ofLength(0);
+    }
+
+    @Test
+    public void onSparseFieldsetShouldNotIncludeExcludedRelationships() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(2L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        task.setProject(project);
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("fields[tasks]", "name"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new ResourceResponse(new Container<>(task, requestParams)));
+
+        // THEN
+        assertThatJson(result).node("included").isArray().ofLength(0);
+    }
+
     @Test
     public void onSingleResponseWithNoResourcesShouldReturnEmptyArray() throws Exception {
         // WHEN
@@ -119,4 +307,41 @@ public class BaseResponseSerializerTest extends BaseSerializerTest {
             }
         });
     }
+
+    @JsonApiResource(type = "milestones")
+    public static class Milestone {
+
+        @JsonApiId
+        private Long id;
+
+        private String name;
+
+        @JsonApiToOne
+        @JsonApiIncludeByDefault
+        private Project project;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Project getProject() {
+            throw new UnsupportedOperationException("Excluded relationship must not be read");
+        }
+
+        public void setProject(Project project) {
+            this.project = project;
+        }
+    }
 }
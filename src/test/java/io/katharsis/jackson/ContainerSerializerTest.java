@@ -1,9 +1,25 @@
 package io.katharsis.jackson;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.queryParams.RequestParamsBuilder;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
 import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.response.Container;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.util.Collections;
+
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
 
 public class ContainerSerializerTest extends BaseSerializerTest {
@@ -45,4 +61,110 @@ public class ContainerSerializerTest extends BaseSerializerTest {
         // THEN
         assertThatJson(result).node("attributes.name").isEqualTo("name");
     }
+
+    @Test
+    public void onSimpleObjectWithNullAttributeShouldWriteNull() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(1L);
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container<>(project));
+
+        // THEN
+        assertThatJson(result).node("attributes.name").isEqualTo(null);
+    }
+
+    @Test
+    public void onSparseFieldsetShouldWriteOnlyRequestedFields() throws Exception {
+        // GIVEN
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        task.setProject(new Project());
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("fields[tasks]", "project"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container<>(task, requestParams));
+
+        // THEN
+        assertThatJson(result).node("attributes.name").isAbsent();
+        assertThatJson(result).node("relationships.project").isPresent();
+    }
+
+    @Test
+    public void onSparseFieldsetOfOtherTypeShouldWriteAllFields() throws Exception {
+        // GIVEN
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("fields[projects]", "name"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container<>(task, requestParams));
+
+        // THEN
+        assertThatJson(result).node("attributes.name").isEqualTo("Sample task");
+        assertThatJson(result).node("relationships.project").isPresent();
+    }
+
+    @Test
+    public void onSharedModuleShouldResolveAttributeSerializersPerMapper() throws Exception {
+        // GIVEN
+        resourceRegistry.addEntry(Ticket.class,
+                new RegistryEntry<>(new ResourceInformationBuilder().build(Ticket.class), null));
+        Module module = new JsonApiModuleBuilder().build(resourceRegistry);
+        ObjectMapper defaultMapper = new ObjectMapper();
+        defaultMapper.registerModule(module);
+        ObjectMapper customMapper = new ObjectMapper();
+        customMapper.registerModule(module);
+        customMapper.registerModule(new SimpleModule().addSerializer(Status.class, new JsonSerializer<Status>() {
+            @Override
+            public void serialize(Status value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                gen.writeString(value.name().toLowerCase());
+            }
+        }));
+        Ticket ticket = new Ticket();
+        ticket.setId(1L);
+        ticket.setStatus(Status.OPEN);
+
+        // WHEN
+        String defaultResult = defaultMapper.writeValueAsString(new Container<>(ticket));
+        String customResult = customMapper.writeValueAsString(new Container<>(ticket));
+
+        // THEN
+        assertThatJson(defaultResult).node("attributes.status").isEqualTo("OPEN");
+        assertThatJson(customResult).node("attributes.status").isEqualTo("open");
+    }
+
+    public enum Status {
+        OPEN
+    }
+
+    @JsonApiResource(type = "tickets")
+    public static class Ticket {
+
+        @JsonApiId
+        private Long id;
+
+        private Status status;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+    }
 }
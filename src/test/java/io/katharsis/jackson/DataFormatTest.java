@@ -0,0 +1,31 @@
+package io.katharsis.jackson;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataFormatTest {
+
+    @Test
+    public void onMediaTypeWithParametersShouldReturnFormat() {
+        // WHEN
+        DataFormat result = DataFormat.forMediaType("Application/X-Jackson-Smile; q=0.9");
+
+        // THEN
+        assertThat(result).isEqualTo(DataFormat.SMILE);
+    }
+
+    @Test
+    public void onJsonMediaTypesShouldReturnJson() {
+        // THEN
+        assertThat(DataFormat.forMediaType("application/vnd.api+json")).isEqualTo(DataFormat.JSON);
+        assertThat(DataFormat.forMediaType("application/json")).isEqualTo(DataFormat.JSON);
+    }
+
+    @Test
+    public void onUnsupportedMediaTypeShouldReturnNull() {
+        // THEN
+        assertThat(DataFormat.forMediaType("text/html")).isNull();
+        assertThat(DataFormat.forMediaType(null)).isNull();
+    }
+}
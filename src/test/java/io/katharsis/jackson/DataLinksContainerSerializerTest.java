@@ -1,9 +1,14 @@
 package io.katharsis.jackson;
 
 import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
 import io.katharsis.response.Container;
+import io.katharsis.response.DataLinksContainer;
 import org.junit.Test;
 
+import java.lang.reflect.Field;
+import java.util.Collections;
+
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
 
 public class DataLinksContainerSerializerTest extends BaseSerializerTest {
@@ -32,4 +37,19 @@ public class DataLinksContainerSerializerTest extends BaseSerializerTest {
         // THEN
         assertThatJson(result).node("relationships.self").isEqualTo("https://service.local/projects/1");
     }
+
+    @Test
+    public void onContainerWithoutSerializationContextShouldHaveLinks() throws Exception {
+        // GIVEN
+        Task task = new Task();
+        task.setId(1L);
+        Field projectField = Task.class.getDeclaredField("project");
+
+        // WHEN
+        String result = sut.writeValueAsString(new DataLinksContainer(task, Collections.singleton(projectField)));
+
+        // THEN
+        assertThatJson(result).node("self").isEqualTo("https://service.local/tasks/1");
+        assertThatJson(result).node("project.related").isEqualTo("https://service.local/tasks/1/project");
+    }
 }
@@ -0,0 +1,86 @@
+package io.katharsis.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.locator.SampleJsonServiceLocator;
+import io.katharsis.request.dto.Linkage;
+import io.katharsis.request.dto.RequestBody;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryBuilder;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import io.katharsis.resource.registry.ResourceRegistryTest;
+import io.katharsis.response.Container;
+import io.katharsis.response.ResourceResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ObjectMapperFactoryTest {
+
+    private ObjectMapperFactory sut;
+
+    @Before
+    public void prepare() throws Exception {
+        ResourceRegistry resourceRegistry = new ResourceRegistryBuilder(new SampleJsonServiceLocator(),
+                new ResourceInformationBuilder())
+                .build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, ResourceRegistryTest.TEST_MODELS_URL);
+        sut = new ObjectMapperFactory(resourceRegistry);
+    }
+
+    @Test
+    public void onSameFormatShouldReturnSameObjectMapper() throws Exception {
+        // WHEN
+        ObjectMapper result = sut.getObjectMapper(DataFormat.SMILE);
+
+        // THEN
+        assertThat(result).isSameAs(sut.getObjectMapper(DataFormat.SMILE));
+        assertThat(result).isNotSameAs(sut.getObjectMapper(DataFormat.JSON));
+    }
+
+    @Test
+    public void onBinaryFormatsShouldWriteSameDocumentAsJson() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(2L);
+        project.setName("Sample project");
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        task.setProject(project);
+        ResourceResponse response = new ResourceResponse(new Container<>(task));
+        ObjectMapper jsonMapper = sut.getObjectMapper(DataFormat.JSON);
+        ObjectMapper smileMapper = sut.getObjectMapper(DataFormat.SMILE);
+        ObjectMapper cborMapper = sut.getObjectMapper(DataFormat.CBOR);
+
+        // WHEN
+        JsonNode smileResult = smileMapper.readTree(smileMapper.writeValueAsBytes(response));
+        JsonNode cborResult = cborMapper.readTree(cborMapper.writeValueAsBytes(response));
+
+        // THEN
+        JsonNode jsonResult = jsonMapper.readTree(jsonMapper.writeValueAsBytes(response));
+        assertThat(smileResult).isEqualTo(jsonResult);
+        assertThat(cborResult).isEqualTo(jsonResult);
+    }
+
+    @Test
+    public void onBinaryRequestBodyShouldReadRelationships() throws Exception {
+        // GIVEN
+        String body = "{\"data\": {\"type\": \"tasks\", \"attributes\": {\"name\": \"asdasd\"}, \"relationships\": {\"project\": " +
+                "{\"type\": \"projects\", \"id\": \"123\"}}}}";
+        ObjectMapper smileMapper = sut.getObjectMapper(DataFormat.SMILE);
+        byte[] smileBody = smileMapper.writeValueAsBytes(sut.getObjectMapper(DataFormat.JSON).readTree(body));
+
+        // WHEN
+        RequestBody result = smileMapper.readValue(smileBody, RequestBody.class);
+
+        // THEN
+        assertThat(result.getData().getType()).isEqualTo("tasks");
+        assertThat(result.getData().getAttributes().getAttributes().get("name")).isEqualTo("asdasd");
+        assertThat(((Linkage) (result.getData().getRelationships().getAdditionalProperties().get("project")))
+                .getId()).isEqualTo("123");
+    }
+}
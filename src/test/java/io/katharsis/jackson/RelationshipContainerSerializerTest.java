@@ -1,9 +1,21 @@
 package io.katharsis.jackson;
 
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.queryParams.IncludePath;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.queryParams.RequestParamsBuilder;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.annotations.JsonApiToOne;
+import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import io.katharsis.resource.mock.models.User;
+import io.katharsis.resource.registry.RegistryEntry;
 import io.katharsis.response.Container;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Collections;
@@ -27,6 +39,31 @@ public class RelationshipContainerSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("relationships.project").isPresent();
     }
 
+    @Test
+    public void onRemovedTargetResourceShouldThrowResourceNotFound() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(2L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setProject(project);
+        resourceRegistry.removeEntry(Project.class);
+
+        // WHEN
+        try {
+            sut.writeValueAsString(new Container<>(task));
+            Assert.fail("Expected " + ResourceNotFoundException.class.getSimpleName());
+        } catch (JsonMappingException e) {
+            // THEN
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof ResourceNotFoundException)) {
+                Assert.assertFalse(cause instanceof NullPointerException);
+                cause = cause.getCause();
+            }
+            Assert.assertNotNull(cause);
+        }
+    }
+
     @Test
     public void onRelationshipShouldIncludeRelationshipSelfLink() throws Exception {
         // GIVEN
@@ -114,4 +151,125 @@ public class RelationshipContainerSerializerTest extends BaseSerializerTest {
         // THEN
         assertThatJson(result).node("relationships.assignedProjects.linkage").isArray().ofLength(0);
     }
+
+    @Test
+    public void onLazyRelationshipShouldNotWriteLinkage() throws Exception {
+        // GIVEN
+        resourceRegistry.addEntry(LazyTask.class,
+                new RegistryEntry<>(new ResourceInformationBuilder().build(LazyTask.class), null));
+        LazyTask task = new LazyTask();
+        task.setId(1L);
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container<>(task));
+
+        // THEN
+        assertThatJson(result).node("relationships.project.related").isEqualTo("https://service.local/lazyTasks/1/project");
+        assertThatJson(result).node("relationships.project.linkage").isAbsent();
+    }
+
+    @Test
+    public void onIncludedLazyRelationshipShouldWriteLinkage() throws Exception {
+        // GIVEN
+        resourceRegistry.addEntry(LazyTask.class,
+                new RegistryEntry<>(new ResourceInformationBuilder().build(LazyTask.class), null));
+        LazyTask task = new LazyTask();
+        task.setId(1L);
+        task.setProject(new Project());
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("include", "project"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container<>(task, requestParams));
+
+        // THEN
+        assertThatJson(result).node("relationships.project.linkage").isPresent();
+    }
+
+    @Test
+    public void onLazyRelationshipIncludedAtOtherLevelShouldNotWriteLinkage() throws Exception {
+        // GIVEN
+        resourceRegistry.addEntry(LazyTask.class,
+                new RegistryEntry<>(new ResourceInformationBuilder().build(LazyTask.class), null));
+        LazyTask task = new LazyTask();
+        task.setId(1L);
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("include", "assignee.project"));
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container<>(task, requestParams));
+
+        // THEN
+        assertThatJson(result).node("relationships.project.linkage").isAbsent();
+    }
+
+    @Test
+    public void onLazyRelationshipIncludedAtResourcePathShouldWriteLinkage() throws Exception {
+        // GIVEN
+        resourceRegistry.addEntry(LazyTask.class,
+                new RegistryEntry<>(new ResourceInformationBuilder().build(LazyTask.class), null));
+        LazyTask task = new LazyTask();
+        task.setId(1L);
+        task.setProject(new Project());
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+                .buildRequestParams(Collections.singletonMap("include", "assignee.project"));
+        IncludePath assigneePath = requestParams.getIncludePath().getChild("assignee");
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container<>(task, requestParams,
+                Collections.singletonList(assigneePath)));
+
+        // THEN
+        assertThatJson(result).node("relationships.project.linkage").isPresent();
+    }
+
+    @Test
+    public void onLazyRelationshipsModeShouldWriteLinkageOfRelationshipIncludedByDefault() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder().build(resourceRegistry, true));
+        Project project = new Project();
+        project.setId(2L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setProject(project);
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container<>(task));
+
+        // THEN
+        assertThatJson(result).node("relationships.project.linkage.id").isEqualTo("\"2\"");
+    }
+
+    @JsonApiResource(type = "lazyTasks")
+    public static class LazyTask {
+
+        @JsonApiId
+        private Long id;
+
+        @JsonApiToOne(lazy = true)
+        private Project project;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        /**
+         * Fails unless the project has been set, so reading a relationship which should be skipped fails the test.
+         */
+        public Project getProject() {
+            if (project == null) {
+                throw new IllegalStateException("Lazy relationship has been read");
+            }
+            return project;
+        }
+
+        public void setProject(Project project) {
+            this.project = project;
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package io.katharsis.jackson;
+
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.response.CollectionResponse;
+import io.katharsis.response.ContainerIterable;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseWriterTest extends BaseSerializerTest {
+
+    @Test
+    public void onOutputStreamShouldWriteSameDocumentAsString() throws Exception {
+        // GIVEN
+        CollectionResponse response = new CollectionResponse(new ContainerIterable(createTasks(10)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        new ResponseWriter(sut).write(response, outputStream);
+
+        // THEN
+        assertThat(outputStream.toString("UTF-8")).isEqualTo(sut.writeValueAsString(response));
+    }
+
+    @Test
+    public void onChannelShouldWriteDocumentLargerThanBuffer() throws Exception {
+        // GIVEN
+        CollectionResponse response = new CollectionResponse(new ContainerIterable(createTasks(1000)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        ResponseWriter writer = new ResponseWriter(sut);
+
+        // WHEN
+        writer.write(response, channel);
+        writer.write(response, channel);
+
+        // THEN
+        String expected = sut.writeValueAsString(response);
+        assertThat(outputStream.toString("UTF-8")).isEqualTo(expected + expected);
+        assertThat(channel.isOpen()).isTrue();
+    }
+
+    private static List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Task task = new Task();
+            task.setId(id);
+            task.setName("Sample task " + id);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
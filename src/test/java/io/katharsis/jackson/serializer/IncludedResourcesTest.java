@@ -0,0 +1,53 @@
+package io.katharsis.jackson.serializer;
+
+import io.katharsis.locator.SampleJsonServiceLocator;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.registry.ResourceRegistryBuilder;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import io.katharsis.resource.registry.ResourceRegistryTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncludedResourcesTest {
+
+    private IncludedResources sut;
+
+    @Before
+    public void setUp() throws Exception {
+        ResourceRegistryBuilder registryBuilder = new ResourceRegistryBuilder(new SampleJsonServiceLocator(),
+                new ResourceInformationBuilder());
+        sut = new IncludedResources(registryBuilder.build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE,
+                ResourceRegistryTest.TEST_MODELS_URL));
+    }
+
+    @Test
+    public void onPrimaryResourcesWhichCannotBeIncludedShouldNotRetainKeys() throws Exception {
+        // WHEN
+        for (long id = 0; id < 1000; id++) {
+            Task task = new Task();
+            task.setId(id);
+            sut.addPrimary(task, null);
+        }
+
+        // THEN
+        assertThat(sut.getPrimaryKeyCount()).isEqualTo(0);
+        assertThat(sut.resolve()).isEmpty();
+    }
+
+    @Test
+    public void onPrimaryResourcesWhichCanBeIncludedShouldRetainKeys() throws Exception {
+        // WHEN
+        for (long id = 0; id < 10; id++) {
+            Project project = new Project();
+            project.setId(id);
+            sut.addPrimary(project, null);
+        }
+
+        // THEN
+        assertThat(sut.getPrimaryKeyCount()).isEqualTo(10);
+    }
+}
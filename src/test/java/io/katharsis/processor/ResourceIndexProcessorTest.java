@@ -0,0 +1,94 @@
+package io.katharsis.processor;
+
+import io.katharsis.utils.ClassIndex;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceIndexProcessorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File outputDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        outputDirectory = temporaryFolder.newFolder();
+    }
+
+    @Test
+    public void onResourceAndRepositoryShouldWriteIndex() throws Exception {
+        // GIVEN
+        JavaFileObject resource = source("sample.Item",
+                "package sample;\n" +
+                "@io.katharsis.resource.annotations.JsonApiResource(type = \"items\")\n" +
+                "public class Item { @io.katharsis.resource.annotations.JsonApiId private Long id; }");
+        JavaFileObject repository = source("sample.ItemRepository",
+                "package sample;\n" +
+                "public abstract class ItemRepository implements io.katharsis.repository.ResourceRepository<Item, Long> { }");
+
+        // WHEN
+        boolean result = compile(resource, repository);
+
+        // THEN
+        assertThat(result).isTrue();
+        assertThat(readIndex(ClassIndex.RESOURCES)).containsExactly("sample.Item");
+        assertThat(readIndex(ClassIndex.RESOURCE_REPOSITORIES)).containsExactly("sample.ItemRepository");
+        assertThat(readIndex(ClassIndex.RELATIONSHIP_REPOSITORIES)).isEmpty();
+        assertThat(readIndex(ClassIndex.PACKAGES)).containsExactly("sample");
+    }
+
+    @Test
+    public void onResourceWithoutIdShouldFailCompilation() throws Exception {
+        // GIVEN
+        JavaFileObject resource = source("sample.Item",
+                "package sample;\n" +
+                "@io.katharsis.resource.annotations.JsonApiResource(type = \"items\")\n" +
+                "public class Item { private Long id; }");
+
+        // WHEN
+        boolean result = compile(resource);
+
+        // THEN
+        assertThat(result).isFalse();
+    }
+
+    private boolean compile(JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> options = Arrays.asList("-d", outputDirectory.getAbsolutePath(),
+                "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostic -> { }, options, null, Arrays.asList(sources));
+        task.setProcessors(Collections.singletonList(new ResourceIndexProcessor()));
+        return task.call();
+    }
+
+    private List<String> readIndex(String location) throws Exception {
+        return Files.readAllLines(new File(outputDirectory, location).toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static JavaFileObject source(String className, String content) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+}
@@ -85,6 +85,30 @@ public class RequestParamsBuilderTest {
         assertThat(result.getIncludedFields().contains("name")).isTrue();
     }
 
+    @Test
+    public void onGivenTypedIncludedFieldsBuilderShouldReturnFieldsOfType() throws
+            ParametersDeserializationException {
+        // GIVEN
+        queryParams.put(RestrictedQueryParamsMembers.fields.name(), "[\"name\"]");
+        queryParams.put(RestrictedQueryParamsMembers.fields.name() + "[tasks]", "name,project");
+
+        // WHEN
+        RequestParams result = sut.buildRequestParams(queryParams);
+
+        // THEN
+        assertThat(result.getIncludedFields("tasks")).containsExactly("name", "project");
+        assertThat(result.getIncludedFields("projects")).containsExactly("name");
+    }
+
+    @Test
+    public void onNoIncludedFieldsBuilderShouldReturnAllFields() throws ParametersDeserializationException {
+        // WHEN
+        RequestParams result = sut.buildRequestParams(queryParams);
+
+        // THEN
+        assertThat(result.getIncludedFields("tasks")).isNull();
+    }
+
     @Test
     public void onGivenIncludedRelationsBuilderShouldReturnRequestParamsWithIncludedRelations() throws
             ParametersDeserializationException {
@@ -97,4 +121,42 @@ public class RequestParamsBuilderTest {
         // THEN
         assertThat(result.getIncludedRelations().contains("friends")).isTrue();
     }
+
+    @Test
+    public void onGivenCommaSeparatedIncludedRelationsBuilderShouldReturnPaths() throws
+            ParametersDeserializationException {
+        // GIVEN
+        queryParams.put(RestrictedQueryParamsMembers.include.name(), "project,assignee.team");
+
+        // WHEN
+        RequestParams result = sut.buildRequestParams(queryParams);
+
+        // THEN
+        assertThat(result.getIncludedRelations()).containsExactly("project", "assignee.team");
+        assertThat(result.getIncludePath().getChild("project")).isNotNull();
+        assertThat(result.getIncludePath().getChild("assignee").getChild("team")).isNotNull();
+        assertThat(result.getIncludePath().getChild("team")).isNull();
+    }
+
+    @Test
+    public void onRequestParamsWithoutPrimaryDataParamsShouldKeepOnlyFieldsAndIncludes() throws
+            ParametersDeserializationException {
+        // GIVEN
+        queryParams.put(RestrictedQueryParamsMembers.filter.name(), "{\"name\": \"John\"}");
+        queryParams.put(RestrictedQueryParamsMembers.sort.name(), "{\"name\": \"asc\"}");
+        queryParams.put(RestrictedQueryParamsMembers.page.name(), "{ \"offset\" : 0, \"limit\": 10}");
+        queryParams.put(RestrictedQueryParamsMembers.fields.name(), "[\"name\"]");
+        queryParams.put(RestrictedQueryParamsMembers.include.name(), "project");
+        RequestParams requestParams = sut.buildRequestParams(queryParams);
+
+        // WHEN
+        RequestParams result = requestParams.withoutPrimaryDataParams();
+
+        // THEN
+        assertThat(result.getFilters()).isNull();
+        assertThat(result.getSorting()).isNull();
+        assertThat(result.getPagination()).isNull();
+        assertThat(result.getIncludedFields("tasks")).containsExactly("name");
+        assertThat(result.getIncludedRelations()).containsExactly("project");
+    }
 }
@@ -12,11 +12,9 @@ public class FieldPathTest {
     @Test
     public void onParentWithNoIdsShouldReturnInformationAboutResource() throws Exception {
         // GIVEN
-        JsonPath sut = new FieldPath("field");
-
         String parentName = "resource";
         JsonPath parent = new ResourcePath(parentName);
-        sut.setParentResource(parent);
+        JsonPath sut = new FieldPath("field", parent);
 
         // WHEN
         boolean isCollection = sut.isCollection();
@@ -30,11 +28,9 @@ public class FieldPathTest {
     @Test
     public void onParentWithOneIdShouldReturnInformationAboutResource() throws Exception {
         // GIVEN
-        JsonPath sut = new FieldPath("field");
-
         String parentName = "resource";
         JsonPath parent = new ResourcePath(parentName, new PathIds(Collections.singletonList("1")));
-        sut.setParentResource(parent);
+        JsonPath sut = new FieldPath("field", parent);
 
         // WHEN
         boolean isCollection = sut.isCollection();
@@ -48,11 +44,9 @@ public class FieldPathTest {
     @Test
     public void onParentWithManyIdsShouldReturnInformationAboutResource() throws Exception {
         // GIVEN
-        JsonPath sut = new FieldPath("field");
-
         String parentName = "resource";
         JsonPath parent = new ResourcePath(parentName, new PathIds(Arrays.asList("1", "2")));
-        sut.setParentResource(parent);
+        JsonPath sut = new FieldPath("field", parent);
 
         // WHEN
         boolean isCollection = sut.isCollection();
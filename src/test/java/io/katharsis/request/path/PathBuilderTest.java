@@ -5,6 +5,7 @@ import io.katharsis.resource.ResourceInformationBuilder;
 import io.katharsis.resource.exception.ResourceException;
 import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
+import io.katharsis.resource.mock.models.User;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.resource.registry.ResourceRegistryBuilder;
 import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
@@ -84,8 +85,7 @@ public class PathBuilderTest {
         JsonPath jsonPath = pathBuilder.buildPath(path);
 
         // THEN
-        JsonPath expectedPath = new FieldPath("project");
-        expectedPath.setParentResource(new ResourcePath("tasks", new PathIds("1")));
+        JsonPath expectedPath = new FieldPath("project", new ResourcePath("tasks", new PathIds("1")));
         assertThat(jsonPath).isEqualTo(expectedPath);
     }
 
@@ -111,8 +111,7 @@ public class PathBuilderTest {
         JsonPath jsonPath = pathBuilder.buildPath(path);
 
         // THEN
-        JsonPath expectedPath = new RelationshipsPath("project");
-        expectedPath.setParentResource(new ResourcePath("tasks", new PathIds("1")));
+        JsonPath expectedPath = new RelationshipsPath("project", new ResourcePath("tasks", new PathIds("1")));
 
         assertThat(jsonPath).isEqualTo(expectedPath);
     }
@@ -218,6 +217,102 @@ public class PathBuilderTest {
         Assert.assertEquals(jsonPath.getIds().getIds(), Arrays.asList("1", "2"));
     }
 
+    @Test
+    public void onIdsWithEmptyElementsShouldSkipThem() {
+        // GIVEN
+        String path = "/tasks/,1,,2,/";
+
+        // WHEN
+        JsonPath jsonPath = pathBuilder.buildPath(path);
+
+        // THEN
+        Assert.assertEquals(Arrays.asList("1", "2"), jsonPath.getIds().getIds());
+    }
+
+    @Test
+    public void onIdWithTrailingCommaShouldReturnSingleId() {
+        // GIVEN
+        String path = "/tasks/1,/";
+
+        // WHEN
+        JsonPath jsonPath = pathBuilder.buildPath(path);
+
+        // THEN
+        Assert.assertFalse(jsonPath.isCollection());
+        Assert.assertEquals(Collections.singletonList("1"), jsonPath.getIds().getIds());
+    }
+
+    @Test
+    public void onIdsWithOnlyCommasShouldThrowException() {
+        // GIVEN
+        String path = "/tasks/,,/";
+
+        // THEN
+        expectedException.expect(ResourceException.class);
+
+        // WHEN
+        pathBuilder.buildPath(path);
+    }
+
+    @Test
+    public void onPathWithoutSlashesShouldReturnFlatPath() {
+        // GIVEN
+        String path = "tasks/1";
+
+        // WHEN
+        JsonPath jsonPath = pathBuilder.buildPath(path);
+
+        // THEN
+        assertThat(jsonPath).isEqualTo(new ResourcePath("tasks", new PathIds("1")));
+    }
+
+    @Test
+    public void onPercentEncodedIdsShouldReturnDecodedIds() {
+        // GIVEN
+        String path = "/tasks/a%2Cb,c%20d/";
+
+        // WHEN
+        JsonPath jsonPath = pathBuilder.buildPath(path);
+
+        // THEN
+        Assert.assertEquals(Arrays.asList("a,b", "c d"), jsonPath.getIds().getIds());
+    }
+
+    @Test
+    public void onInvalidPercentEncodingShouldThrowException() {
+        // GIVEN
+        String path = "/tasks/1%2";
+
+        // THEN
+        expectedException.expect(ResourceException.class);
+
+        // WHEN
+        pathBuilder.buildPath(path);
+    }
+
+    @Test
+    public void onPathsDifferingByIdsShouldShareShape() {
+        // GIVEN
+        JsonPath firstPath = pathBuilder.buildPath("/tasks/1/relationships/project");
+
+        // WHEN
+        JsonPath secondPath = pathBuilder.buildPath("/tasks/2/relationships/project");
+
+        // THEN
+        assertThat(secondPath).isEqualTo(new RelationshipsPath("project", new ResourcePath("tasks", new PathIds("2"))));
+        assertThat(firstPath.getIds()).isEqualTo(new PathIds("1"));
+    }
+
+    @Test
+    public void onPathWithoutIdsShouldReturnSharedInstance() {
+        // WHEN
+        JsonPath firstPath = pathBuilder.buildPath("/tasks/");
+        JsonPath secondPath = pathBuilder.buildPath("/tasks");
+
+        // THEN
+        assertThat(secondPath).isSameAs(firstPath);
+    }
+
     @Test
     public void onSimpleResourcePathShouldReturnCorrectStringPath() {
         // GIVEN
@@ -246,8 +341,7 @@ public class PathBuilderTest {
     public void onResourcePathWithIdsAndRelationshipsPathShouldReturnCorrectStringPath() {
         // GIVEN
         JsonPath parentJsonPath = new ResourcePath("tasks", new PathIds(Collections.singletonList("1")));
-        JsonPath jsonPath = new RelationshipsPath("project");
-        jsonPath.setParentResource(parentJsonPath);
+        JsonPath jsonPath = new RelationshipsPath("project", parentJsonPath);
 
         // WHEN
         String result = pathBuilder.buildPath(jsonPath);
@@ -260,8 +354,7 @@ public class PathBuilderTest {
     public void onResourcePathWithIdsAndFieldPathShouldReturnCorrectStringPath() {
         // GIVEN
         JsonPath parentJsonPath = new ResourcePath("tasks", new PathIds(Collections.singletonList("1")));
-        JsonPath jsonPath = new FieldPath("project");
-        jsonPath.setParentResource(parentJsonPath);
+        JsonPath jsonPath = new FieldPath("project", parentJsonPath);
 
         // WHEN
         String result = pathBuilder.buildPath(jsonPath);
@@ -269,4 +362,17 @@ public class PathBuilderTest {
         // THEN
         assertThat(result).isEqualTo("/tasks/1/project/");
     }
+
+    @Test
+    public void onRemovedResourceShouldNotUseCachedPath() {
+        // GIVEN
+        pathBuilder.buildPath("/users/1");
+        resourceRegistry.removeEntry(User.class);
+
+        // THEN
+        expectedException.expect(ResourceNotFoundException.class);
+
+        // WHEN
+        pathBuilder.buildPath("/users/2");
+    }
 }
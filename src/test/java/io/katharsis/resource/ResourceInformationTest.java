@@ -1,6 +1,9 @@
 package io.katharsis.resource;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.models.User;
 import org.junit.Test;
 
 import java.lang.reflect.Field;
@@ -22,4 +25,50 @@ public class ResourceInformationTest {
         // THEN
         assertThat(result).isEqualTo(field);
     }
+
+    @Test
+    public void onToManyRelationshipShouldReturnRelationshipInfo() throws NoSuchFieldException {
+        // GIVEN
+        Field field = User.class.getDeclaredField("assignedProjects");
+        ResourceInformation sut = new ResourceInformation(User.class, null, null, Collections.singleton(field));
+
+        // WHEN
+        RelationshipInfo result = sut.getRelationshipInfo("assignedProjects");
+
+        // THEN
+        assertThat(result.getField()).isEqualTo(field);
+        assertThat(result.getJsonName()).isEqualTo("assignedProjects");
+        assertThat(result.isToMany()).isTrue();
+        assertThat(result.getTargetClass()).isEqualTo(Project.class);
+        assertThat(result.isIncludeByDefault()).isTrue();
+        assertThat(sut.getRelationshipInfo("nonExistingField")).isNull();
+    }
+
+    @Test
+    public void onAttributeJsonNameSearchShouldReturnAttributeInfo() throws NoSuchFieldException {
+        // GIVEN
+        Field field = NamedAttributeResource.class.getDeclaredField("createdAt");
+        ResourceInformation sut = new ResourceInformation(NamedAttributeResource.class, null, Collections.singleton(field), null);
+
+        // WHEN
+        AttributeInfo result = sut.findAttributeInfoByName("created-at");
+
+        // THEN
+        assertThat(result.getField()).isEqualTo(field);
+        assertThat(sut.findAttributeFieldByName("created-at")).isEqualTo(field);
+        assertThat(sut.findAttributeFieldByName("createdAt")).isNull();
+    }
+
+    public static class NamedAttributeResource {
+        @JsonProperty("created-at")
+        private String createdAt;
+
+        public String getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(String createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
 }
@@ -6,6 +6,8 @@ import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.mock.models.Project;
 
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 public class ProjectRepository implements ResourceRepository<Project, Long> {
@@ -43,7 +45,14 @@ public class ProjectRepository implements ResourceRepository<Project, Long> {
 
     @Override
     public Iterable<Project> findAll(Iterable<Long> longs, RequestParams requestParams) {
-        return null;
+        List<Project> projects = new LinkedList<>();
+        for (Long id : longs) {
+            Project project = THREAD_LOCAL_REPOSITORY.get().get(id);
+            if (project != null) {
+                projects.add(project);
+            }
+        }
+        return projects;
     }
 
     @Override
@@ -0,0 +1,108 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.repository.ProjectRepository;
+import io.katharsis.resource.mock.repository.TaskRepository;
+import io.katharsis.resource.mock.repository.TaskToProjectRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RegistrySnapshotFileTest {
+
+    private static final byte[] KEY = {1, 2, 3};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void onWrittenSnapshotShouldReadSameBindings() throws Exception {
+        // GIVEN
+        Path file = temporaryFolder.getRoot().toPath().resolve("registry.snapshot");
+
+        // WHEN
+        RegistrySnapshotFile.write(file, KEY, createBindings());
+        RepositoryBindings result = RegistrySnapshotFile.read(file, KEY, getClass().getClassLoader());
+
+        // THEN
+        assertThat(result).isNotNull();
+        assertThat(result.getResourceClasses()).containsExactly(Project.class, Task.class);
+        assertThat(result.getEntityRepositoryClass(Task.class)).isEqualTo(TaskRepository.class);
+        assertThat(result.getRelationshipRepositoryClasses(Task.class)).containsExactly(TaskToProjectRepository.class);
+        assertThat(result.getRelationshipRepositoryClasses(Project.class)).isEmpty();
+    }
+
+    @Test
+    public void onDifferentKeyShouldNotReadSnapshot() throws Exception {
+        // GIVEN
+        Path file = temporaryFolder.getRoot().toPath().resolve("registry.snapshot");
+        RegistrySnapshotFile.write(file, KEY, createBindings());
+
+        // WHEN
+        RepositoryBindings result = RegistrySnapshotFile.read(file, new byte[]{3, 2, 1}, getClass().getClassLoader());
+
+        // THEN
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void onDamagedSnapshotShouldNotReadSnapshot() throws Exception {
+        // GIVEN
+        Path file = temporaryFolder.getRoot().toPath().resolve("registry.snapshot");
+        RegistrySnapshotFile.write(file, KEY, createBindings());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        // WHEN
+        RepositoryBindings result = RegistrySnapshotFile.read(file, KEY, getClass().getClassLoader());
+
+        // THEN
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void onMissingSnapshotShouldNotReadSnapshot() throws Exception {
+        // GIVEN
+        Path file = temporaryFolder.getRoot().toPath().resolve("missing.snapshot");
+
+        // WHEN
+        RepositoryBindings result = RegistrySnapshotFile.read(file, KEY, getClass().getClassLoader());
+
+        // THEN
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void onSamePackageShouldComputeSameKey() throws Exception {
+        // WHEN
+        byte[] key = RegistrySnapshotFile.computeKey(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, getClass().getClassLoader());
+
+        // THEN
+        assertThat(key).isEqualTo(RegistrySnapshotFile.computeKey(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE,
+                getClass().getClassLoader()));
+        assertThat(key).isNotEqualTo(RegistrySnapshotFile.computeKey("io.katharsis.resource", getClass().getClassLoader()));
+    }
+
+    private static RepositoryBindings createBindings() {
+        Map<Class<?>, Class<? extends ResourceRepository>> entityRepositoryClasses = new HashMap<>();
+        entityRepositoryClasses.put(Project.class, ProjectRepository.class);
+        entityRepositoryClasses.put(Task.class, TaskRepository.class);
+        Map<Class<?>, List<Class<? extends RelationshipRepository>>> relationshipRepositoryClasses = new HashMap<>();
+        relationshipRepositoryClasses.put(Task.class, Collections.singletonList(TaskToProjectRepository.class));
+        return new RepositoryBindings(Arrays.asList(Project.class, Task.class), entityRepositoryClasses,
+                relationshipRepositoryClasses);
+    }
+}
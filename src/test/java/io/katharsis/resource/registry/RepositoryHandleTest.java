@@ -0,0 +1,93 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.locator.JsonServiceLocator;
+import io.katharsis.locator.SampleJsonServiceLocator;
+import io.katharsis.repository.RepositoryNotFoundException;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.mock.repository.TaskRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RepositoryHandleTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void onInstanceShouldReturnInstance() {
+        // GIVEN
+        TaskRepository taskRepository = new TaskRepository();
+        RepositoryHandle<ResourceRepository> sut = RepositoryHandle.of(taskRepository);
+
+        // WHEN
+        ResourceRepository result = sut.get();
+
+        // THEN
+        assertThat(result).isSameAs(taskRepository);
+        assertThat(sut.isResolved()).isTrue();
+        assertThat(sut.getRepositoryClass()).isEqualTo(TaskRepository.class);
+    }
+
+    @Test
+    public void onLazyHandleShouldObtainInstanceOnce() {
+        // GIVEN
+        AtomicInteger calls = new AtomicInteger();
+        JsonServiceLocator locator = new SampleJsonServiceLocator() {
+            @Override
+            public <T> T getInstance(Class<T> clazz) {
+                calls.incrementAndGet();
+                return super.getInstance(clazz);
+            }
+        };
+        RepositoryHandle<ResourceRepository> sut = RepositoryHandle.lazy(TaskRepository.class, locator);
+
+        // WHEN
+        assertThat(sut.isResolved()).isFalse();
+        ResourceRepository first = sut.get();
+        ResourceRepository second = sut.get();
+
+        // THEN
+        assertThat(first).isExactlyInstanceOf(TaskRepository.class);
+        assertThat(second).isSameAs(first);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(sut.isResolved()).isTrue();
+    }
+
+    @Test
+    public void onNullInstanceFromLocatorShouldThrowException() {
+        // GIVEN
+        RepositoryHandle<ResourceRepository> sut = RepositoryHandle.lazy(TaskRepository.class, new JsonServiceLocator() {
+            @Override
+            public <T> T getInstance(Class<T> clazz) {
+                return null;
+            }
+        });
+
+        // THEN
+        expectedException.expect(RepositoryNotFoundException.class);
+        expectedException.expectMessage(TaskRepository.class.getCanonicalName());
+
+        // WHEN
+        sut.get();
+    }
+
+    @Test
+    public void onLazyHandlesWithSameClassAndLocatorShouldBeEqual() {
+        // GIVEN
+        JsonServiceLocator locator = new SampleJsonServiceLocator();
+        RepositoryHandle<ResourceRepository> resolved = RepositoryHandle.lazy(TaskRepository.class, locator);
+        RepositoryHandle<ResourceRepository> notResolved = RepositoryHandle.lazy(TaskRepository.class, locator);
+
+        // WHEN
+        resolved.get();
+
+        // THEN
+        assertThat(resolved).isEqualTo(notResolved);
+        assertThat(resolved.hashCode()).isEqualTo(notResolved.hashCode());
+    }
+}
@@ -2,17 +2,28 @@ package io.katharsis.resource.registry;
 
 import io.katharsis.locator.SampleJsonServiceLocator;
 import io.katharsis.repository.RepositoryNotFoundException;
+import io.katharsis.resource.RelationshipInfo;
 import io.katharsis.resource.ResourceInformationBuilder;
 import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.models.User;
 import io.katharsis.resource.mock.repository.TaskRepository;
 import io.katharsis.resource.mock.repository.TaskToProjectRepository;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.katharsis.resource.registry.ResourceRegistryTest.TEST_MODELS_URL;
 
@@ -24,6 +35,18 @@ public class ResourceRegistryBuilderTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        forkJoinPool.shutdownNow();
+        executorService.shutdownNow();
+    }
+
     @Test
     public void onValidPackageShouldBuildRegistry() {
         // GIVEN
@@ -40,6 +63,11 @@ public class ResourceRegistryBuilderTest {
         List tasksRelationshipRepositories = tasksEntry.getRelationshipRepositories();
         Assert.assertEquals(1, tasksRelationshipRepositories.size());
         Assert.assertEquals(TEST_MODELS_URL + "/tasks", resourceRegistry.getResourceUrl(Task.class));
+        RelationshipInfo projectRelationship = tasksEntry.getResourceInformation().getRelationshipInfo("project");
+        Assert.assertSame(resourceRegistry.getEntry(Project.class),
+                resourceRegistry.getSnapshot().getTargetEntry(projectRelationship));
+        Assert.assertTrue(tasksEntry.getRelationshipRepositoryForClass(projectRelationship.getTargetClass())
+                instanceof TaskToProjectRepository);
 
         RegistryEntry projectsEntry = resourceRegistry.getEntry("projects");
         Assert.assertNotNull(projectsEntry);
@@ -109,4 +137,144 @@ public class ResourceRegistryBuilderTest {
         // WHEN
         sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
     }
+
+    @Test
+    public void onParallelBuildShouldBuildSameRegistry() {
+        // GIVEN
+        ResourceRegistryBuilder serialBuilder = new ResourceRegistryBuilder(new SampleJsonServiceLocator(), new ResourceInformationBuilder());
+        ResourceRegistryBuilder sut = new ResourceRegistryBuilder(new SampleJsonServiceLocator(), new ResourceInformationBuilder(),
+                forkJoinPool);
+
+        // WHEN
+        ResourceRegistry resourceRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+
+        // THEN
+        ResourceRegistry serialResourceRegistry = serialBuilder.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+        for (Class<?> resourceClass : new Class<?>[]{Task.class, Project.class, User.class}) {
+            Assert.assertEquals(serialResourceRegistry.getEntry(resourceClass).getResourceInformation(),
+                    resourceRegistry.getEntry(resourceClass).getResourceInformation());
+            Assert.assertEquals(serialResourceRegistry.getEntry(resourceClass).getRelationshipRepositories().size(),
+                    resourceRegistry.getEntry(resourceClass).getRelationshipRepositories().size());
+        }
+        RelationshipInfo projectRelationship = resourceRegistry.getEntry(Task.class).getResourceInformation()
+                .getRelationshipInfo("project");
+        Assert.assertSame(resourceRegistry.getEntry(Project.class),
+                resourceRegistry.getSnapshot().getTargetEntry(projectRelationship));
+    }
+
+    @Test
+    public void onParallelBuildWithNoRepositoryInstanceShouldThrowException() {
+        // GIVEN
+        ResourceRegistryBuilder sut = new ResourceRegistryBuilder(new SampleJsonServiceLocator() {
+            public <T> T getInstance(Class<T> clazz) {
+                if (clazz == TaskRepository.class) {
+                    return null;
+                } else {
+                    return super.getInstance(clazz);
+                }
+            }
+        }, new ResourceInformationBuilder(), forkJoinPool);
+
+        // THEN
+        expectedException.expect(RepositoryNotFoundException.class);
+        expectedException.expectMessage(TaskRepository.class.getCanonicalName());
+
+        // WHEN
+        sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+    }
+
+    @Test
+    public void onLazyRepositoriesShouldNotObtainRepositoriesWhileBuilding() {
+        // GIVEN
+        AtomicInteger calls = new AtomicInteger();
+        ResourceRegistryBuilder sut = new ResourceRegistryBuilder(new SampleJsonServiceLocator() {
+            public <T> T getInstance(Class<T> clazz) {
+                calls.incrementAndGet();
+                return super.getInstance(clazz);
+            }
+        }, new ResourceInformationBuilder()).withLazyRepositories();
+
+        // WHEN
+        ResourceRegistry resourceRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+
+        // THEN
+        Assert.assertEquals(0, calls.get());
+        RelationshipInfo projectRelationship = resourceRegistry.getEntry(Task.class).getResourceInformation()
+                .getRelationshipInfo("project");
+        Assert.assertTrue(resourceRegistry.getEntry(Task.class)
+                .getRelationshipRepositoryForClass(projectRelationship.getTargetClass()) instanceof TaskToProjectRepository);
+        Assert.assertTrue(resourceRegistry.getEntry(Task.class).getResourceRepository() instanceof TaskRepository);
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void onLazyRepositoriesWarmUpShouldObtainAllRepositories() throws Exception {
+        // GIVEN
+        AtomicInteger calls = new AtomicInteger();
+        ResourceRegistryBuilder sut = new ResourceRegistryBuilder(new SampleJsonServiceLocator() {
+            public <T> T getInstance(Class<T> clazz) {
+                calls.incrementAndGet();
+                return super.getInstance(clazz);
+            }
+        }, new ResourceInformationBuilder()).withLazyRepositories();
+        ResourceRegistry resourceRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+
+        // WHEN
+        resourceRegistry.warmUp(executorService).get();
+
+        // THEN
+        int obtainedRepositories = calls.get();
+        Assert.assertTrue(obtainedRepositories > 0);
+        resourceRegistry.getEntry(Task.class).getResourceRepository();
+        resourceRegistry.getEntry(Task.class).getRelationshipRepositories();
+        Assert.assertEquals(obtainedRepositories, calls.get());
+    }
+
+    @Test
+    public void onLazyRepositoriesWithNoRepositoryInstanceWarmUpShouldFail() throws Exception {
+        // GIVEN
+        ResourceRegistryBuilder sut = new ResourceRegistryBuilder(new SampleJsonServiceLocator() {
+            public <T> T getInstance(Class<T> clazz) {
+                if (clazz == TaskRepository.class) {
+                    return null;
+                } else {
+                    return super.getInstance(clazz);
+                }
+            }
+        }, new ResourceInformationBuilder()).withLazyRepositories();
+        ResourceRegistry resourceRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+
+        // WHEN
+        try {
+            resourceRegistry.warmUp(executorService).get();
+            Assert.fail("Expected " + RepositoryNotFoundException.class.getSimpleName());
+        } catch (ExecutionException e) {
+            // THEN
+            Assert.assertTrue(e.getCause() instanceof RepositoryNotFoundException);
+        }
+    }
+
+    @Test
+    public void onSnapshotFileShouldBuildSameRegistry() throws Exception {
+        // GIVEN
+        Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("registry.snapshot");
+        ResourceRegistryBuilder sut = new ResourceRegistryBuilder(new SampleJsonServiceLocator(), new ResourceInformationBuilder());
+
+        // WHEN
+        ResourceRegistry scannedRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL, snapshotFile);
+        ResourceRegistry resourceRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL, snapshotFile);
+
+        // THEN
+        Assert.assertTrue(Files.exists(snapshotFile));
+        for (Class<?> resourceClass : new Class<?>[]{Task.class, Project.class, User.class}) {
+            Assert.assertEquals(scannedRegistry.getEntry(resourceClass).getResourceInformation(),
+                    resourceRegistry.getEntry(resourceClass).getResourceInformation());
+            Assert.assertEquals(scannedRegistry.getEntry(resourceClass).getRelationshipRepositories().size(),
+                    resourceRegistry.getEntry(resourceClass).getRelationshipRepositories().size());
+        }
+        RelationshipInfo projectRelationship = resourceRegistry.getEntry(Task.class).getResourceInformation()
+                .getRelationshipInfo("project");
+        Assert.assertTrue(resourceRegistry.getEntry(Task.class)
+                .getRelationshipRepositoryForClass(projectRelationship.getTargetClass()) instanceof TaskToProjectRepository);
+    }
 }
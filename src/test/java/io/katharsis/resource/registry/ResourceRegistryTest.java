@@ -1,6 +1,10 @@
 package io.katharsis.resource.registry;
 
+import io.katharsis.resource.RelationshipInfo;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.exception.init.ResourceNotFoundInitalizationException;
+import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import org.junit.Before;
 import org.junit.Rule;
@@ -53,4 +57,41 @@ public class ResourceRegistryTest {
         expectedException.expect(ResourceNotFoundInitalizationException.class);
         resourceRegisty.getEntry(Long.class);
     }
+
+    @Test
+    public void onAddedEntryShouldNotChangePreviousSnapshot() {
+        ResourceRegistrySnapshot snapshot = resourceRegisty.getSnapshot();
+        resourceRegisty.addEntry(Task.class, new RegistryEntry<>(null, null));
+        assertThat(snapshot.getEntry("tasks")).isNull();
+        assertThat(resourceRegisty.getSnapshot().getEntry("tasks")).isNotNull();
+    }
+
+    @Test
+    public void onRemovedEntryShouldNotReturnEntry() {
+        resourceRegisty.addEntry(Task.class, new RegistryEntry<>(null, null));
+        ResourceRegistrySnapshot snapshot = resourceRegisty.getSnapshot();
+        resourceRegisty.removeEntry(Task.class);
+        assertThat(resourceRegisty.getEntry("tasks")).isNull();
+        assertThat(snapshot.getEntry("tasks")).isNotNull();
+    }
+
+    @Test
+    public void onRemovedTargetShouldResolveRelationshipOnlyInPreviousSnapshot() {
+        RelationshipInfo projectRelationship = new ResourceInformationBuilder().build(Task.class)
+                .getRelationshipInfo("project");
+        RegistryEntry<Project> projectEntry = new RegistryEntry<>(null, null);
+        resourceRegisty.addEntry(Project.class, projectEntry);
+        ResourceRegistrySnapshot snapshot = resourceRegisty.getSnapshot();
+        resourceRegisty.removeEntry(Project.class);
+
+        assertThat(snapshot.getTargetEntry(projectRelationship)).isSameAs(projectEntry);
+        expectedException.expect(ResourceNotFoundException.class);
+        resourceRegisty.getSnapshot().getTargetEntry(projectRelationship);
+    }
+
+    @Test
+    public void onExistingClassShouldReturnType() {
+        resourceRegisty.addEntry(Task.class, new RegistryEntry<>(null, null));
+        assertThat(resourceRegisty.getResourceType(Task.class)).isEqualTo("tasks");
+    }
 }
@@ -0,0 +1,31 @@
+package io.katharsis.response;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceSerializationContextTest {
+
+    @Test
+    public void onCommonIdTypesShouldReturnStringRepresentation() throws Exception {
+        // GIVEN
+        UUID uuid = UUID.randomUUID();
+
+        // THEN
+        assertThat(ResourceSerializationContext.toIdString(1L)).isEqualTo("1");
+        assertThat(ResourceSerializationContext.toIdString(2)).isEqualTo("2");
+        assertThat(ResourceSerializationContext.toIdString("3")).isEqualTo("3");
+        assertThat(ResourceSerializationContext.toIdString(uuid)).isEqualTo(uuid.toString());
+    }
+
+    @Test
+    public void onNullIdShouldReturnNull() throws Exception {
+        // WHEN
+        String result = ResourceSerializationContext.toIdString(null);
+
+        // THEN
+        assertThat(result).isNull();
+    }
+}
@@ -1,6 +1,7 @@
 package io.katharsis.response.builder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import org.junit.Before;
 import org.junit.Rule;
@@ -10,6 +11,7 @@ import org.junit.rules.ExpectedException;
 import java.util.Collections;
 
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class ResponseBuilderTest {
 
@@ -62,4 +64,30 @@ public class ResponseBuilderTest {
         // WHEN
         sut.buildResponse("invalid resource", Task.class, true);
     }
+
+    @Test
+    public void onSingleResourceShouldReturnResourceAsData() throws Exception {
+        // GIVEN
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("sample task");
+
+        // WHEN
+        Object result = sut.buildResponse(task, Task.class, false);
+        String resultJson = objectMapper.writeValueAsString(result);
+
+        // THEN
+        assertThatJson(resultJson).node("data.name").isEqualTo("sample task");
+    }
+
+    @Test
+    public void onManyResponsesShouldNotCreateClasses() throws Exception {
+        // WHEN
+        Object singleResult = sut.buildResponse(null, Task.class, false);
+        Object collectionResult = sut.buildResponse(Collections.singletonList(new Task()), Task.class, true);
+
+        // THEN
+        assertThat(collectionResult.getClass()).isSameAs(singleResult.getClass());
+        assertThat(sut.buildResponse(null, Project.class, false).getClass()).isSameAs(singleResult.getClass());
+    }
 }
@@ -0,0 +1,172 @@
+package io.katharsis.utils;
+
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.exception.init.InvalidResourceException;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.repository.TaskRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassIndexTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void onNoIndexShouldNotContainLocation() throws Exception {
+        // WHEN
+        ClassIndex result = ClassIndex.load(createClassLoader(temporaryFolder));
+
+        // THEN
+        assertThat(result.contains(ClassIndex.RESOURCES)).isFalse();
+    }
+
+    @Test
+    public void onIndexShouldReturnClassesFromPackage() throws Exception {
+        // GIVEN
+        writeIndex(temporaryFolder, ClassIndex.RESOURCES, "# resources", Task.class.getName(), Project.class.getName(),
+                String.class.getName());
+        writeIndex(temporaryFolder, ClassIndex.RESOURCE_REPOSITORIES, TaskRepository.class.getName());
+
+        // WHEN
+        ClassIndex sut = ClassIndex.load(createClassLoader(temporaryFolder));
+
+        // THEN
+        assertThat(sut.contains(ClassIndex.RESOURCES)).isTrue();
+        assertThat(sut.contains(ClassIndex.RELATIONSHIP_REPOSITORIES)).isFalse();
+        Set<Class<?>> resources = sut.getClasses(ClassIndex.RESOURCES, "io.katharsis.resource.mock", Object.class);
+        assertThat(resources).containsOnly(Task.class, Project.class);
+        assertThat(sut.getClasses(ClassIndex.RESOURCE_REPOSITORIES, "", ResourceRepository.class))
+                .containsOnly(TaskRepository.class);
+        assertThat(sut.getClasses(ClassIndex.RELATIONSHIP_REPOSITORIES, "", Object.class)).isEmpty();
+    }
+
+    @Test
+    public void onIndexShouldContainOnlyListedPackages() throws Exception {
+        // GIVEN
+        writeIndex(temporaryFolder, ClassIndex.RESOURCES, Task.class.getName());
+        writeIndex(temporaryFolder, ClassIndex.PACKAGES, "io.katharsis.resource.mock.models");
+
+        // WHEN
+        ClassIndex sut = ClassIndex.load(createClassLoader(temporaryFolder));
+
+        // THEN
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock.models")).isTrue();
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock.models.sub")).isTrue();
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock")).isFalse();
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock.mod")).isFalse();
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "")).isFalse();
+        assertThat(sut.isIndexed(ClassIndex.RESOURCE_REPOSITORIES, "io.katharsis.resource.mock.models")).isFalse();
+    }
+
+    @Test
+    public void onPackageInUnindexedRootShouldNotBeIndexed() throws Exception {
+        // GIVEN
+        File indexedRoot = temporaryFolder.newFolder("indexed");
+        File unindexedRoot = temporaryFolder.newFolder("unindexed");
+        writeIndex(indexedRoot, ClassIndex.RESOURCES, Task.class.getName());
+        writeIndex(indexedRoot, ClassIndex.PACKAGES, "io.katharsis.resource.mock");
+        createPackage(indexedRoot, "io.katharsis.resource.mock.models");
+        createPackage(unindexedRoot, "io.katharsis.resource.mock.repository");
+
+        // WHEN
+        ClassIndex sut = ClassIndex.load(createClassLoader(indexedRoot, unindexedRoot));
+
+        // THEN
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock")).isFalse();
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock.repository")).isFalse();
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock.models")).isTrue();
+    }
+
+    @Test
+    public void onIndexWithoutPackagesShouldNotBeIndexed() throws Exception {
+        // GIVEN
+        writeIndex(temporaryFolder, ClassIndex.RESOURCES, Task.class.getName());
+
+        // WHEN
+        ClassIndex sut = ClassIndex.load(createClassLoader(temporaryFolder));
+
+        // THEN
+        assertThat(sut.isIndexed(ClassIndex.RESOURCES, "io.katharsis.resource.mock.models")).isFalse();
+    }
+
+    @Test
+    public void onPackageSharingPrefixShouldNotReturnClasses() throws Exception {
+        // GIVEN
+        writeIndex(temporaryFolder, ClassIndex.RESOURCES, Task.class.getName());
+
+        // WHEN
+        ClassIndex sut = ClassIndex.load(createClassLoader(temporaryFolder));
+
+        // THEN
+        assertThat(sut.getClasses(ClassIndex.RESOURCES, "io.katharsis.resource.mock.mod", Object.class)).isEmpty();
+    }
+
+    @Test
+    public void onMissingClassShouldThrowException() throws Exception {
+        // GIVEN
+        writeIndex(temporaryFolder, ClassIndex.RESOURCES, "io.katharsis.NonExistingClass");
+        ClassIndex sut = ClassIndex.load(createClassLoader(temporaryFolder));
+
+        // THEN
+        expectedException.expect(InvalidResourceException.class);
+
+        // WHEN
+        sut.getClasses(ClassIndex.RESOURCES, "", Object.class);
+    }
+
+    static void writeIndex(TemporaryFolder temporaryFolder, String location, String... lines) throws Exception {
+        writeIndex(temporaryFolder.getRoot(), location, lines);
+    }
+
+    static void writeIndex(File root, String location, String... lines) throws Exception {
+        File file = new File(root, location);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    static void createPackage(File root, String packageName) {
+        new File(root, packageName.replace('.', '/')).mkdirs();
+    }
+
+    /**
+     * Creates a class loader which finds index files only in the temporary folder.
+     */
+    static ClassLoader createClassLoader(TemporaryFolder temporaryFolder) throws Exception {
+        return createClassLoader(temporaryFolder.getRoot());
+    }
+
+    /**
+     * Creates a class loader which finds index files and packages only in the given roots.
+     */
+    static ClassLoader createClassLoader(File... roots) throws Exception {
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            urls[i] = roots[i].toURI().toURL();
+        }
+        return new URLClassLoader(urls, ClassIndexTest.class.getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return findResources(name);
+            }
+        };
+    }
+}
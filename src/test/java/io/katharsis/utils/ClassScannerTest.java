@@ -0,0 +1,141 @@
+package io.katharsis.utils;
+
+import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.models.User;
+import io.katharsis.resource.mock.repository.TaskToProjectRepository;
+import io.katharsis.resource.mock.repository.UserToProjectRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.reflections.Reflections;
+
+import java.io.File;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassScannerTest {
+
+    private static final String TEST_MODELS_PACKAGE = "io.katharsis.resource.mock";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void onNoIndexShouldScanPackage() throws Exception {
+        // GIVEN
+        ClassScanner sut = new ClassScanner(ClassIndex.load(ClassIndexTest.createClassLoader(temporaryFolder)), TEST_MODELS_PACKAGE);
+
+        // WHEN
+        Set<Class<?>> resources = sut.getTypesAnnotatedWith(JsonApiResource.class, TEST_MODELS_PACKAGE);
+        Set<Class<? extends RelationshipRepository>> relationshipRepositories = sut
+                .getSubTypesOf(RelationshipRepository.class, TEST_MODELS_PACKAGE + ".repository");
+
+        // THEN
+        assertThat(resources).contains(Task.class, Project.class, User.class);
+        assertThat(relationshipRepositories).containsOnly(TaskToProjectRepository.class, UserToProjectRepository.class);
+    }
+
+    @Test
+    public void onIndexWithoutPackageShouldScanPackage() throws Exception {
+        // GIVEN
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.RESOURCES, "com.example.Item");
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.RELATIONSHIP_REPOSITORIES);
+        ClassScanner sut = new ClassScanner(ClassIndex.load(ClassIndexTest.createClassLoader(temporaryFolder)), TEST_MODELS_PACKAGE);
+
+        // WHEN
+        Set<Class<?>> resources = sut.getTypesAnnotatedWith(JsonApiResource.class, TEST_MODELS_PACKAGE);
+        Set<Class<? extends RelationshipRepository>> relationshipRepositories = sut
+                .getSubTypesOf(RelationshipRepository.class, TEST_MODELS_PACKAGE + ".repository");
+
+        // THEN
+        assertThat(resources).contains(Task.class, Project.class, User.class);
+        assertThat(relationshipRepositories).containsOnly(TaskToProjectRepository.class, UserToProjectRepository.class);
+    }
+
+    @Test
+    public void onIndexOfPackageSharingPrefixShouldScanPackage() throws Exception {
+        // GIVEN
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.RESOURCES, "io.katharsis.resource.mockup.Item");
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.PACKAGES, "io.katharsis.resource.mockup");
+        ClassScanner sut = new ClassScanner(ClassIndex.load(ClassIndexTest.createClassLoader(temporaryFolder)), TEST_MODELS_PACKAGE);
+
+        // WHEN
+        Set<Class<?>> resources = sut.getTypesAnnotatedWith(JsonApiResource.class, TEST_MODELS_PACKAGE);
+
+        // THEN
+        assertThat(resources).contains(Task.class, Project.class, User.class);
+    }
+
+    @Test
+    public void onIndexedPackageShouldReturnIndexedClasses() throws Exception {
+        // GIVEN
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.RESOURCES, Task.class.getName());
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.PACKAGES, TEST_MODELS_PACKAGE);
+        ClassScanner sut = new ClassScanner(ClassIndex.load(ClassIndexTest.createClassLoader(temporaryFolder)), TEST_MODELS_PACKAGE);
+
+        // WHEN
+        Set<Class<?>> resources = sut.getTypesAnnotatedWith(JsonApiResource.class, TEST_MODELS_PACKAGE);
+
+        // THEN
+        assertThat(resources).containsOnly(Task.class);
+    }
+
+    @Test
+    public void onPackageInIndexedAndUnindexedRootsShouldScanPackage() throws Exception {
+        // GIVEN
+        File indexedRoot = temporaryFolder.newFolder("indexed");
+        File unindexedRoot = temporaryFolder.newFolder("unindexed");
+        ClassIndexTest.writeIndex(indexedRoot, ClassIndex.RESOURCES, Task.class.getName());
+        ClassIndexTest.writeIndex(indexedRoot, ClassIndex.PACKAGES, TEST_MODELS_PACKAGE);
+        ClassIndexTest.createPackage(indexedRoot, TEST_MODELS_PACKAGE);
+        ClassIndexTest.createPackage(unindexedRoot, TEST_MODELS_PACKAGE + ".models");
+        ClassScanner sut = new ClassScanner(ClassIndex.load(ClassIndexTest.createClassLoader(indexedRoot, unindexedRoot)),
+                TEST_MODELS_PACKAGE);
+
+        // WHEN
+        Set<Class<?>> resources = sut.getTypesAnnotatedWith(JsonApiResource.class, TEST_MODELS_PACKAGE);
+
+        // THEN
+        assertThat(resources).contains(Task.class, Project.class, User.class);
+    }
+
+    @Test
+    public void onNotScannedPackageShouldThrowException() throws Exception {
+        // GIVEN
+        ClassScanner sut = new ClassScanner(ClassIndex.load(ClassIndexTest.createClassLoader(temporaryFolder)), TEST_MODELS_PACKAGE);
+
+        // THEN
+        expectedException.expect(IllegalArgumentException.class);
+
+        // WHEN
+        sut.getTypesAnnotatedWith(JsonApiResource.class, "io.katharsis.errorhandling");
+    }
+
+    @Test
+    public void onControllersShouldReturnAllControllersFromIndex() throws Exception {
+        // GIVEN
+        ClassScanner sut = new ClassScanner();
+        Set<Class<? extends BaseController>> scannedControllers = new Reflections(ClassScanner.CONTROLLERS_PACKAGE)
+                .getSubTypesOf(BaseController.class)
+                .stream()
+                .filter(controllerClass -> !Modifier.isAbstract(controllerClass.getModifiers()))
+                .collect(Collectors.toSet());
+
+        // WHEN
+        Set<Class<? extends BaseController>> result = sut.getSubTypesOf(BaseController.class, ClassScanner.CONTROLLERS_PACKAGE);
+
+        // THEN
+        assertThat(result).isEqualTo(scannedControllers);
+    }
+}
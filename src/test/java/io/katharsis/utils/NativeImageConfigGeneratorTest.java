@@ -0,0 +1,193 @@
+package io.katharsis.utils;
+
+import io.katharsis.dispatcher.controller.resource.ResourceGet;
+import io.katharsis.dispatcher.registry.ControllerRegistry;
+import io.katharsis.dispatcher.registry.ControllerRegistryBuilder;
+import io.katharsis.errorhandling.handlers.SomeExceptionMapper;
+import io.katharsis.errorhandling.mapper.ExceptionMapperRegistry;
+import io.katharsis.errorhandling.mapper.ExceptionMapperRegistryBuilder;
+import io.katharsis.locator.SampleJsonServiceLocator;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.resource.ResourceInformationBuilder;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.repository.TaskRepository;
+import io.katharsis.resource.mock.repository.TaskToProjectRepository;
+import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryBuilder;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import io.katharsis.resource.registry.ResourceRegistryTest;
+import io.katharsis.response.builder.ResponseBuilder;
+import io.katharsis.utils.parser.TypeParser;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeImageConfigGeneratorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ResourceRegistry resourceRegistry;
+    private NativeImageConfigGenerator sut;
+
+    @Before
+    public void prepare() throws Exception {
+        resourceRegistry = new ResourceRegistryBuilder(new SampleJsonServiceLocator(),
+                new ResourceInformationBuilder()).withLazyRepositories()
+                .build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, ResourceRegistryTest.TEST_MODELS_URL);
+        ControllerRegistry controllerRegistry = new ControllerRegistryBuilder().build(resourceRegistry, new TypeParser());
+        ExceptionMapperRegistry exceptionMapperRegistry = new ExceptionMapperRegistryBuilder()
+                .build("io.katharsis.errorhandling.handlers");
+        sut = new NativeImageConfigGenerator(resourceRegistry, controllerRegistry, exceptionMapperRegistry);
+    }
+
+    @Test
+    public void onBuiltRegistriesShouldCreateReflectConfig() {
+        // WHEN
+        List<Map<String, Object>> result = sut.createReflectConfig();
+
+        // THEN
+        assertThat(findEntry(result, Task.class))
+                .containsEntry("allDeclaredFields", true)
+                .containsEntry("allDeclaredConstructors", true);
+        assertThat(findEntry(result, TaskRepository.class)).containsEntry("allDeclaredConstructors", true);
+        assertThat(findEntry(result, TaskToProjectRepository.class)).containsEntry("allDeclaredConstructors", true);
+        assertThat(findEntry(result, ResourceGet.class)).containsEntry("allDeclaredConstructors", true);
+        assertThat(findEntry(result, SomeExceptionMapper.class)).containsEntry("allDeclaredConstructors", true);
+        assertThat(findEntry(result, ResponseBuilder.TopLevelJson.class)).containsEntry("allPublicMethods", true);
+    }
+
+    @Test
+    public void onWrittenClassIndexShouldFindRegisteredClasses() throws Exception {
+        // WHEN
+        sut.writeClassIndex(temporaryFolder.getRoot().toPath(), ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE);
+
+        // THEN
+        ClassIndex classIndex = ClassIndex.load(ClassIndexTest.createClassLoader(temporaryFolder));
+        assertThat(classIndex.getClasses(ClassIndex.RESOURCES, "", Object.class)).contains(Task.class);
+        assertThat(classIndex.getClasses(ClassIndex.RELATIONSHIP_REPOSITORIES, "", RelationshipRepository.class))
+                .contains(TaskToProjectRepository.class);
+        assertThat(classIndex.getClasses(ClassIndex.EXCEPTION_MAPPERS, "", Object.class)).contains(SomeExceptionMapper.class);
+    }
+
+    @Test
+    public void onOutputDirectoryNotOnClasspathShouldNotListPackage() throws Exception {
+        // WHEN
+        sut.writeClassIndex(temporaryFolder.getRoot().toPath(), ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE);
+
+        // THEN
+        ClassIndex classIndex = ClassIndex.load(ClassIndexTest.createClassLoader(temporaryFolder));
+        assertThat(classIndex.isIndexed(ClassIndex.RESOURCES, ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE)).isFalse();
+    }
+
+    @Test
+    public void onOutputDirectoryContainingPackageShouldListPackage() throws Exception {
+        // GIVEN
+        ClassIndexTest.createPackage(temporaryFolder.getRoot(), ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE);
+        ClassLoader classLoader = ClassIndexTest.createClassLoader(temporaryFolder);
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+
+        // WHEN
+        thread.setContextClassLoader(classLoader);
+        try {
+            sut.writeClassIndex(temporaryFolder.getRoot().toPath(), ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+
+        // THEN
+        ClassIndex classIndex = ClassIndex.load(classLoader);
+        assertThat(classIndex.isIndexed(ClassIndex.RESOURCES, ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE)).isTrue();
+    }
+
+    @Test
+    public void onExistingClassIndexShouldMergeEntries() throws Exception {
+        // GIVEN
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.RESOURCES, Customer.class.getName(),
+                "io.katharsis.NonExistingClass");
+        ClassIndexTest.writeIndex(temporaryFolder, ClassIndex.PACKAGES, "com.example");
+
+        // WHEN
+        sut.writeClassIndex(temporaryFolder.getRoot().toPath(), ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE);
+
+        // THEN
+        Path root = temporaryFolder.getRoot().toPath();
+        assertThat(Files.readAllLines(root.resolve(ClassIndex.RESOURCES), StandardCharsets.UTF_8))
+                .contains(Customer.class.getName(), Task.class.getName())
+                .doesNotContain("io.katharsis.NonExistingClass");
+        assertThat(Files.readAllLines(root.resolve(ClassIndex.PACKAGES), StandardCharsets.UTF_8))
+                .containsExactly("com.example");
+    }
+
+    @Test
+    public void onAttributesWithCustomTypesShouldAddValueTypes() {
+        // GIVEN
+        resourceRegistry.addEntry(Customer.class,
+                new RegistryEntry<>(new ResourceInformationBuilder().build(Customer.class), null));
+
+        // WHEN
+        List<Map<String, Object>> result = sut.createReflectConfig();
+
+        // THEN
+        assertThat(findEntry(result, Address.class)).containsEntry("allDeclaredFields", true);
+        assertThat(findEntry(result, Country.class)).containsEntry("allPublicMethods", true);
+    }
+
+    private static Map<String, Object> findEntry(List<Map<String, Object>> reflectConfig, Class<?> clazz) {
+        for (Map<String, Object> entry : reflectConfig) {
+            if (clazz.getName().equals(entry.get("name"))) {
+                return entry;
+            }
+        }
+        throw new AssertionError("No entry for " + clazz.getName());
+    }
+
+    @JsonApiResource(type = "customers")
+    public static class Customer {
+
+        @JsonApiId
+        private Long id;
+
+        private List<Address> addresses;
+
+        public Long getId() {
+            return id;
+        }
+
+        public List<Address> getAddresses() {
+            return addresses;
+        }
+    }
+
+    public static class Address {
+
+        private String street;
+
+        private Country country;
+
+        public String getStreet() {
+            return street;
+        }
+
+        public Country getCountry() {
+            return country;
+        }
+    }
+
+    public enum Country {
+        PL, US
+    }
+}
@@ -0,0 +1,74 @@
+package io.katharsis.utils;
+
+import io.katharsis.resource.mock.models.Task;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PropertyAccessorTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void onPropertyShouldReadAndWriteValue() throws Exception {
+        // GIVEN
+        PropertyAccessor sut = PropertyAccessor.forClass(Task.class).get("name");
+        Task task = new Task();
+
+        // WHEN
+        sut.setValue(task, "sample task");
+
+        // THEN
+        assertThat(task.getName()).isEqualTo("sample task");
+        assertThat(sut.getValue(task)).isEqualTo("sample task");
+    }
+
+    @Test
+    public void onReadOnlyPropertyShouldNotSetValue() throws Exception {
+        // GIVEN
+        Map<String, PropertyAccessor> accessors = PropertyAccessor.forClass(ReadOnlyBean.class);
+
+        // THEN
+        expectedException.expect(NoSuchMethodException.class);
+
+        // WHEN
+        accessors.get("value").setValue(new ReadOnlyBean(), "value");
+    }
+
+    @Test
+    public void onMissingPropertyShouldThrowException() throws Exception {
+        // THEN
+        expectedException.expect(NoSuchMethodException.class);
+
+        // WHEN
+        PropertyAccessor.missing("value").getValue(new ReadOnlyBean());
+    }
+
+    @Test
+    public void onThrowingGetterShouldWrapException() throws Exception {
+        // GIVEN
+        PropertyAccessor sut = PropertyAccessor.forClass(ReadOnlyBean.class).get("failing");
+
+        // THEN
+        expectedException.expect(InvocationTargetException.class);
+
+        // WHEN
+        sut.getValue(new ReadOnlyBean());
+    }
+
+    public static class ReadOnlyBean {
+        public String getValue() {
+            return "value";
+        }
+
+        public String getFailing() {
+            throw new IllegalStateException();
+        }
+    }
+}